@@ -0,0 +1,240 @@
+package bruteforce;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - BatchRunner class
+ *
+ * Purpose: This class solves a whole set of CNF files without asking the
+ * user for anything. The run() method finds the files given by the -batch
+ * option, solves them on a pool of worker threads and prints one result line
+ * per file as soon as that file is done, either as CSV or as JSON Lines. Each
+ * line has the file name, number of variables and clauses, the verdict
+ * (SAT, UNSAT, TIMEOUT, UNKNOWN or ERROR) and the parse and solve times in
+ * nanoseconds. When a file runs past the -timeout limit its engine is told
+ * to stop through its stop flag. UNKNOWN means another limit, such as
+ * -max-assignments, ended the search. For an ERROR the file name and the
+ * reason are printed to standard error.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class BatchRunner {
+    private static final String CSV_HEADER = "file,variables,clauses,verdict,parse_ns,solve_ns,peak_heap_bytes";
+
+    private Config config;                      // Holds the options for the run
+    private PrintStream out;                    // Where result lines are printed
+    private ScheduledExecutorService timer;     // Sets the stop flags of files that time out
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and prints to System.out.
+     *
+     * @param c - Config object holding the options
+     */
+    public BatchRunner(Config c)
+    {
+        this(c, System.out);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param c - Config object holding the options
+     * @param output - stream the result lines are printed to
+     */
+    public BatchRunner(Config c, PrintStream output)
+    {
+        config = c;
+        out = output;
+    }
+
+    /**
+     * Finds the files, solves them on the worker pool and waits until all
+     * of them are done.
+     */
+    public void run()
+    {
+        ArrayList<Path> files;
+        try {
+            files = findFiles(config.getBatch());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not list " + config.getBatch() + ": " + e.getMessage(), e);
+        }
+
+        if (config.getFormat().equals("csv")) {
+            out.println(CSV_HEADER);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(config.getWorkers());
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            ArrayList<Future<?>> results = new ArrayList<>();
+            for (Path file : files) {
+                results.add(pool.submit(() -> solveFile(file)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses and solves one file and prints its result line.
+     *
+     * @param path - file to solve
+     */
+    private void solveFile(Path path)
+    {
+        FileInfo file = new FileInfo(path.toString());
+        file.setCache(config.getFormulaCache());
+        SolveMonitor monitor = config.createMonitor(path.toString());
+        AtomicBoolean stop = new AtomicBoolean();
+        long fileStart = System.nanoTime();
+        ScheduledFuture<?> alarm = null;
+        if (config.getTimeout() > 0) {
+            alarm = timer.schedule(() -> stop.set(true), config.getTimeout(), TimeUnit.SECONDS);
+        }
+
+        String verdict;
+        long parseTime = 0;
+        long solveTime = 0;
+        long peakHeap = 0;
+        try {
+            long start = fileStart;
+            file.setValues();
+            monitor.setPhase("compiling");
+            file.evaluateClauses();
+            parseTime = System.nanoTime() - start;
+
+            SATEngine engine = config.createEngine(file);
+            engine.setStopFlag(stop);
+            monitor.setEngine(engine);
+            start = System.nanoTime();
+            boolean solved = engine.solve();
+            solveTime = System.nanoTime() - start;
+            if (solved) {
+                verdict = "SAT";
+            } else if (engine.getResult() == Result.UNKNOWN) {
+                // The stop flag may also be set by the engine itself, so go by the clock
+                boolean timedOut = config.getTimeout() > 0
+                        && System.nanoTime() - fileStart >= config.getTimeout() * 1000000000L;
+                verdict = timedOut ? "TIMEOUT" : "UNKNOWN";
+            } else {
+                verdict = "UNSAT";
+            }
+        } catch (RuntimeException e) {
+            verdict = "ERROR";
+            // The result line has no room for the reason, so it goes to stderr
+            System.err.println(path + ": " + (e.getMessage() != null ? e.getMessage() : e));
+        } finally {
+            if (alarm != null) {
+                alarm.cancel(false);
+            }
+            peakHeap = monitor.getPeakHeapBytes();
+            monitor.close();
+        }
+        printResult(path.toString(), file.getNumVariables(), file.getNumClauses(),
+                verdict, parseTime, solveTime, peakHeap);
+    }
+
+    /**
+     * Prints one result line in the chosen format. Lines from different
+     * workers are never mixed because printing is synchronized on out.
+     *
+     * @param name - file name
+     * @param variables - number of variables
+     * @param clauses - number of clauses
+     * @param verdict - SAT, UNSAT, TIMEOUT, UNKNOWN or ERROR
+     * @param parseTime - time to parse in nanoseconds
+     * @param solveTime - time to solve in nanoseconds
+     * @param peakHeap - most heap memory used since the file started, in bytes
+     */
+    private void printResult(String name, int variables, int clauses, String verdict,
+                             long parseTime, long solveTime, long peakHeap)
+    {
+        String line;
+        if (config.getFormat().equals("json")) {
+            line = "{\"file\":\"" + name.replace("\\", "\\\\").replace("\"", "\\\"")
+                    + "\",\"variables\":" + variables
+                    + ",\"clauses\":" + clauses
+                    + ",\"verdict\":\"" + verdict
+                    + "\",\"parse_ns\":" + parseTime
+                    + ",\"solve_ns\":" + solveTime
+                    + ",\"peak_heap_bytes\":" + peakHeap + "}";
+        } else {
+            String field = name.contains(",") || name.contains("\"")
+                    ? "\"" + name.replace("\"", "\"\"") + "\"" : name;
+            line = field + "," + variables + "," + clauses + "," + verdict + ","
+                    + parseTime + "," + solveTime + "," + peakHeap;
+        }
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    /**
+     * Lists the files to solve. A directory gives every .cnf and .cnf.gz
+     * file in it, anything else is a glob whose wildcards are in the last
+     * part of the path, such as tests/uf*.cnf.
+     *
+     * @param pattern - directory or glob
+     * @return files - the matching files in name order
+     * @throws IOException if the directory cannot be read
+     */
+    private static ArrayList<Path> findFiles(String pattern) throws IOException
+    {
+        Path path = Path.of(pattern);
+        Path directory;
+        PathMatcher matcher;
+        if (Files.isDirectory(path)) {
+            directory = path;
+            matcher = FileSystems.getDefault().getPathMatcher("glob:*.{cnf,cnf.gz}");
+        } else {
+            directory = path.getParent() != null ? path.getParent() : Path.of(".");
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+        }
+
+        ArrayList<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry) && matcher.matches(entry.getFileName())) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,239 @@
+package bruteforce;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - BitSlicedSolver class
+ *
+ * Purpose: This class is a brute force solver that tests 64 assignments at
+ * once. Every variable is stored as a 64 bit word where bit j is the value of
+ * the variable in assignment j of the current block. A clause is then the OR
+ * of the words of its literals (negated words for negative literals) and the
+ * formula is the AND of all its clauses. Any bit that is still set after the
+ * last clause is a satisfying assignment.
+ *
+ * The 6 lowest counter bits (the last 6 variables) change inside a block and
+ * get fixed patterns such as 0xAAAA... and 0xCCCC..., while the higher bits
+ * are the block number and are either all zeros or all ones. Block b lane j
+ * is counter value 64 * b + j, so assignments are tried in the same order as
+ * Solver and the same first satisfying assignment is reported.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class BitSlicedSolver implements SATEngine {
+    private static final int LANE_BITS = 6;     // 2^6 = 64 assignments per word
+    private static final int STOP_CHECK_MASK = 0x3F;    // Check the stop flag every 64 blocks
+    private static final long[] PATTERNS = {    // Value of counter bit i in each lane
+        0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private int numVariables;
+    private int[] offsets;          // Start of each clause in literalBits
+    private int[] literalBits;      // Counter bit of each literal shifted left once, low bit set if negated
+    private long[] words;           // words[bit] holds the values of a counter bit in all lanes
+    private long laneMask;          // Lanes that are real assignments
+    private boolean[] model;
+    private AtomicBoolean stop;     // Set by another thread to end the search early
+    private SolverStats stats;      // Search counters
+    private long clauseWords;       // Clauses evaluated on a whole block
+    private long literalWords;      // Literal words read
+    private SolveLimits limits;     // Time, assignment and memory limits
+    private volatile Result result; // Outcome of the last solve()
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables.
+     *
+     * @param f - FileInfo object
+     */
+    public BitSlicedSolver(FileInfo f)
+    {
+        this(f.evaluateClauses());
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables from a compiled formula and sets the
+     * lane patterns of the low counter bits.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public BitSlicedSolver(ClauseDatabase db)
+    {
+        numVariables = db.getNumVariables();
+        offsets = db.copyOffsets();
+        IntBuffer literals = db.literalBuffer();    // Read where they are, an arena's stay off the heap
+        literalBits = new int[literals.limit()];
+        for (int k = 0; k < literalBits.length; k++) {
+            int literal = literals.get(k);
+            literalBits[k] = ((numVariables - Math.abs(literal)) << 1) | (literal < 0 ? 1 : 0);
+        }
+
+        words = new long[Math.max(numVariables, LANE_BITS)];
+        for (int bit = 0; bit < LANE_BITS; bit++) {
+            words[bit] = PATTERNS[bit];
+        }
+        // With fewer than 6 variables only the first 2^n lanes are used
+        laneMask = numVariables >= LANE_BITS ? -1L : (1L << (1 << numVariables)) - 1;
+        stats = new SolverStats();
+        limits = SolveLimits.NONE;
+    }
+
+    /**
+     * Tests the formula on all 64 lanes of the current block.
+     *
+     * @return word with a set bit for every lane that satisfies the formula
+     */
+    private long evaluateBlock()
+    {
+        long formula = laneMask;
+        int numClauses = offsets.length - 1;
+        for (int i = 0; i < numClauses && formula != 0; i++) {
+            long clause = 0;
+            clauseWords++;
+            literalWords += offsets[i + 1] - offsets[i];
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                int code = literalBits[k];
+                // -(code & 1) is all ones for a negative literal, which flips the word
+                clause |= words[code >>> 1] ^ -(code & 1);
+            }
+            formula &= clause;
+        }
+        return formula;
+    }
+
+    /**
+     * Goes through the blocks in counter order until one of them has a
+     * satisfying lane or every block has been tested.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        int highBits = Math.max(numVariables - LANE_BITS, 0);
+        long blocks = highBits >= 63 ? Long.MAX_VALUE : 1L << highBits;
+        long lanes = Long.bitCount(laneMask);
+        long startTime = System.nanoTime();
+        long reported = 0;      // Blocks already added to stats
+        clauseWords = 0;
+        literalWords = 0;
+        model = null;
+        result = Result.UNKNOWN;
+        for (int i = LANE_BITS; i < words.length; i++) {
+            words[i] = 0;       // Block 0, a search that ended early left them set
+        }
+
+        for (long block = 0; block < blocks; block++) {
+            if ((block & STOP_CHECK_MASK) == STOP_CHECK_MASK) {
+                stats.add((block - reported) * lanes, clauseWords, literalWords);  // Keeps the counts live
+                reported = block;
+                clauseWords = 0;
+                literalWords = 0;
+                if ((stop != null && stop.get()) || limits.isReached(startTime, block * lanes)) {
+                    return false;
+                }
+            }
+            if (block > 0) {    // Flip the high bits that changed in this increment
+                int changed = Long.numberOfTrailingZeros(block) + 1;
+                for (int i = 0; i < changed; i++) {
+                    words[LANE_BITS + i] = ~words[LANE_BITS + i];
+                }
+            }
+
+            long satisfied = evaluateBlock();
+            if (satisfied != 0) {
+                saveModel(block, Long.numberOfTrailingZeros(satisfied));
+                stats.add((block + 1 - reported) * lanes, clauseWords, literalWords);
+                result = Result.SAT;
+                return true;
+            }
+        }
+        stats.add((blocks - reported) * lanes, clauseWords, literalWords);
+        result = Result.UNSAT;
+        return false;
+    }
+
+    /**
+     * Turns a block and lane into the values of the variables.
+     *
+     * @param block - block number holding the high counter bits
+     * @param lane - lane number holding the low counter bits
+     */
+    private void saveModel(long block, int lane)
+    {
+        model = new boolean[numVariables + 1];
+        for (int v = 1; v <= numVariables; v++) {
+            int bit = numVariables - v;
+            if (bit < LANE_BITS) {
+                model[v] = ((lane >>> bit) & 1) != 0;
+            } else {
+                model[v] = ((block >>> (bit - LANE_BITS)) & 1) != 0;
+            }
+        }
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits checked together with the stop flag
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return progress - part of all assignments that were tested
+     */
+    public double getProgress()
+    {
+        return Math.min(1.0, Math.scalb((double) stats.getAssignments(), -numVariables));
+    }
+
+    /**
+     * Every block counts as 64 assignments, while a clause evaluation and a
+     * literal inspection count once per block since they work on whole words.
+     *
+     * @return stats - search counters
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "bitsliced";
+    }
+}
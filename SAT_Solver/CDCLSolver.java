@@ -0,0 +1,985 @@
+package bruteforce;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - CDCLSolver class
+ *
+ * Purpose: This class is a conflict-driven clause learning solver that can be
+ * used in place of the brute force Solver class. It keeps two watched literals
+ * per clause for unit propagation. When a clause is falsified it learns a new
+ * clause at the first unique implication point (1-UIP) and jumps back to the
+ * second highest decision level in that clause instead of undoing only the
+ * last decision. Branching variables are picked by VSIDS activity, the search
+ * restarts on the Luby sequence, and half of the least active learned clauses
+ * are deleted whenever the learned clause database grows too large.
+ *
+ * Literals are stored internally as 2 * variable for a positive literal and
+ * 2 * variable + 1 for a negative one, so the negation of a literal is lit ^ 1.
+ *
+ * The solver can also be used incrementally: addClause() adds clauses between
+ * calls and solve(int...) solves under assumption literals, which are decided
+ * first, one decision level each. The clauses, watch lists, learned clauses
+ * and variable activity are kept from one call to the next, so a query only
+ * pays for what changed. When the formula is unsatisfiable under the
+ * assumptions, getFailedAssumptions() returns the assumptions that were used
+ * to refute it.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class CDCLSolver implements SATEngine {
+    private static final int RESTART_BASE = 100;        // Conflicts in one unit of the Luby sequence
+    private static final double VAR_DECAY = 0.95;       // Decay factor of variable activity
+    private static final double CLAUSE_DECAY = 0.999;   // Decay factor of learned clause activity
+    private static final double LEARNT_GROWTH = 1.05;   // Growth of the learned clause limit per restart
+
+    private int numVariables;               // Holds # of variables in formula
+    private boolean ok;                     // Set to false once the formula is unsatisfiable at level 0
+    private ArrayList<Clause> clauses;      // Holds the original clauses with 2 or more literals
+    private ArrayList<Clause> learnts;      // Holds the learned clauses with 2 or more literals
+    private ClauseVec[] watches;            // watches[lit] holds the clauses that watch lit
+
+    private byte[] assigns;                 // Value of each variable: 1 true, -1 false, 0 unassigned
+    private int[] level;                    // Decision level each variable was assigned at
+    private Clause[] reason;                // Clause that implied each variable, null for decisions
+    private boolean[] polarity;             // Saved phase of each variable, true means negative
+    private boolean[] seen;                 // Marks used by conflict analysis
+
+    private int[] trail;                    // Assigned literals in assignment order
+    private int trailSize;
+    private int[] trailLim;                 // Start of each decision level in the trail
+    private int numLevels;
+    private int qhead;                      // Next trail position to propagate
+
+    private double[] activity;              // VSIDS activity of each variable
+    private double varInc;
+    private double clauseInc;
+    private VarHeap order;                  // Unassigned variables ordered by activity
+    private double maxLearnts;
+
+    private int[] learntBuffer;             // Scratch space for the clause built in analyze()
+    private int learntSize;
+    private boolean[] model;
+    private int[] assumptions;              // Internal literals decided first by search()
+    private int[] failed;                   // Failed assumptions of the last solve() in DIMACS form
+    private AtomicBoolean stop;             // Set by another thread to end the search early
+    private SolveLimits limits;             // Time, assignment and memory limits
+    private long startTime;                 // System.nanoTime() when solve() started
+    private long startPropagations;         // propagations when solve() started
+    private volatile Result result;         // Outcome of the last solve()
+
+    private long conflicts;
+    private long decisions;
+    private long propagations;
+    private long clauseVisits;              // Watched clauses looked at by propagate()
+    private long literalVisits;             // Literals looked at by propagate()
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and loads the clauses of the file.
+     *
+     * @param f - FileInfo object
+     */
+    public CDCLSolver(FileInfo f)
+    {
+        this(f.evaluateClauses());
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and loads the clauses of a compiled
+     * formula.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public CDCLSolver(ClauseDatabase db)
+    {
+        this(db.getNumVariables());
+        ClauseView view = db.view();
+        for (int i = 0; i < db.getNumClauses() && ok; i++) {
+            view.moveTo(i);
+            int[] clause = new int[view.size()];
+            for (int k = 0; k < clause.length; k++) {
+                clause[k] = view.get(k);
+            }
+            addClause(clause);
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes an empty solver over the given number of variables, for
+     * clauses that are added later with addClause(). More variables are
+     * added as clauses or assumptions use them.
+     *
+     * @param variables - number of variables in the formula
+     */
+    public CDCLSolver(int variables)
+    {
+        numVariables = variables;
+        ok = true;
+        clauses = new ArrayList<>();
+        learnts = new ArrayList<>();
+        watches = new ClauseVec[2 * variables + 2];
+        for (int i = 0; i < watches.length; i++) {
+            watches[i] = new ClauseVec();
+        }
+        assigns = new byte[variables + 1];
+        level = new int[variables + 1];
+        reason = new Clause[variables + 1];
+        polarity = new boolean[variables + 1];
+        seen = new boolean[variables + 1];
+        trail = new int[variables + 1];
+        trailLim = new int[variables + 1];
+        activity = new double[variables + 1];
+        varInc = 1.0;
+        clauseInc = 1.0;
+        order = new VarHeap(activity);
+        for (int v = 1; v <= variables; v++) {
+            polarity[v] = true;     // Try false first, like the brute force order
+            order.insert(v);
+        }
+        learntBuffer = new int[variables + 1];
+        limits = SolveLimits.NONE;
+        assumptions = new int[0];
+        failed = new int[0];
+    }
+
+    /**
+     * Makes room for variables up to the given number. New variables are
+     * unassigned, have no activity and are tried false first.
+     *
+     * @param variables - highest variable number needed
+     */
+    private void growVariables(int variables)
+    {
+        if (variables <= numVariables) {
+            return;
+        }
+        int size = variables + 1;
+        assigns = Arrays.copyOf(assigns, size);
+        level = Arrays.copyOf(level, size);
+        reason = Arrays.copyOf(reason, size);
+        polarity = Arrays.copyOf(polarity, size);
+        seen = Arrays.copyOf(seen, size);
+        trail = Arrays.copyOf(trail, size);
+        trailLim = Arrays.copyOf(trailLim, Math.max(trailLim.length, size));
+        activity = Arrays.copyOf(activity, size);
+        learntBuffer = Arrays.copyOf(learntBuffer, size);
+        int oldWatches = watches.length;
+        watches = Arrays.copyOf(watches, 2 * size);
+        for (int i = oldWatches; i < watches.length; i++) {
+            watches[i] = new ClauseVec();
+        }
+        order.grow(activity);
+        for (int v = numVariables + 1; v <= variables; v++) {
+            polarity[v] = true;
+            order.insert(v);
+        }
+        numVariables = variables;
+    }
+
+    /**
+     * Adds a clause given in DIMACS form (positive or negative variable
+     * numbers). Tautologies and duplicate literals are removed, unit clauses
+     * are assigned right away. Can be called between calls to solve().
+     *
+     * @param dimacs - literals of the clause
+     * @return false if the formula is now unsatisfiable without any assumptions
+     */
+    public boolean addClause(int... dimacs)
+    {
+        if (!ok) {
+            return false;
+        }
+        cancelUntil(0);
+        int[] lits = new int[dimacs.length];
+        for (int i = 0; i < dimacs.length; i++) {
+            lits[i] = toInternal(dimacs[i]);
+        }
+        Arrays.sort(lits);
+
+        int size = 0;
+        for (int i = 0; i < lits.length; i++) {
+            int lit = lits[i];
+            if (value(lit) == 1 || (size > 0 && lits[size - 1] == (lit ^ 1))) {
+                return true;    // Clause is already true or a tautology
+            }
+            if (value(lit) != -1 && (size == 0 || lits[size - 1] != lit)) {
+                lits[size++] = lit;     // Keep literals that are not false or repeated
+            }
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(lits[0], null);
+            ok = (propagate() == null);
+        } else {
+            Clause c = new Clause(Arrays.copyOf(lits, size), false);
+            clauses.add(c);
+            attach(c);
+        }
+        return ok;
+    }
+
+    /**
+     * Turns a DIMACS literal into an internal literal, adding variables if
+     * it is past the last one.
+     *
+     * @param dimacs - literal in DIMACS form
+     * @return lit - the same literal in internal form
+     */
+    private int toInternal(int dimacs)
+    {
+        if (dimacs == 0 || dimacs == Integer.MIN_VALUE) {
+            throw new IllegalArgumentException("Literal " + dimacs + " is out of range");
+        }
+        int variable = Math.abs(dimacs);
+        growVariables(variable);
+        return 2 * variable + (dimacs < 0 ? 1 : 0);
+    }
+
+    /**
+     * Solves the formula with the given literals assumed true. The
+     * assumptions only hold for this call.
+     *
+     * @param assumed - assumption literals in DIMACS form
+     * @return true if the formula is satisfiable under the assumptions, false if not
+     */
+    public boolean solve(int... assumed)
+    {
+        assumptions = new int[assumed.length];
+        for (int i = 0; i < assumed.length; i++) {
+            assumptions[i] = toInternal(assumed[i]);
+        }
+        // Assumptions that are already true get a decision level of their own
+        if (trailLim.length < numVariables + assumed.length + 1) {
+            trailLim = Arrays.copyOf(trailLim, numVariables + assumed.length + 1);
+        }
+        try {
+            return solve();
+        } finally {
+            assumptions = new int[0];
+        }
+    }
+
+    /**
+     * Runs restarts of the CDCL search until the formula is found to be
+     * satisfiable or unsatisfiable.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        failed = new int[0];
+        startTime = System.nanoTime();
+        startPropagations = propagations;
+        result = Result.UNKNOWN;
+        if (!ok) {
+            result = Result.UNSAT;
+            return false;
+        }
+        maxLearnts = Math.max(clauses.size() / 3.0, 1000.0);
+
+        int status = 0;
+        for (int restarts = 0; status == 0 && !isStopped(); restarts++) {
+            int budget = (int) (luby(2, restarts) * RESTART_BASE);
+            status = search(budget);
+            maxLearnts *= LEARNT_GROWTH;
+        }
+        cancelUntil(0);
+        result = status == 1 ? Result.SAT : status == -1 ? Result.UNSAT : Result.UNKNOWN;
+        return status == 1;
+    }
+
+    /**
+     * Searches until a model is found, the formula is refuted or the
+     * conflict budget runs out.
+     *
+     * @param budget - number of conflicts allowed before a restart
+     * @return 1 if satisfiable, -1 if unsatisfiable, 0 if restarting
+     */
+    private int search(int budget)
+    {
+        int conflictsHere = 0;
+        while (true) {
+            Clause confl = propagate();
+            if (confl != null) {
+                conflicts++;
+                conflictsHere++;
+                if (numLevels == 0) {   // Conflict without any decisions
+                    ok = false;
+                    return -1;
+                }
+                int backtrackLevel = analyze(confl);
+                cancelUntil(backtrackLevel);
+                if (learntSize == 1) {
+                    enqueue(learntBuffer[0], null);
+                } else {
+                    Clause c = new Clause(Arrays.copyOf(learntBuffer, learntSize), true);
+                    learnts.add(c);
+                    attach(c);
+                    bumpClause(c);
+                    enqueue(learntBuffer[0], c);
+                }
+                varInc /= VAR_DECAY;
+                clauseInc /= CLAUSE_DECAY;
+                if ((conflicts & 0xFF) == 0 && isStopped()) {   // Check the stop flag every 256 conflicts
+                    cancelUntil(0);
+                    return 0;
+                }
+            } else {
+                if (conflictsHere >= budget) {
+                    cancelUntil(0);
+                    return 0;
+                }
+                if (learnts.size() - trailSize >= maxLearnts) {
+                    reduceDB();
+                }
+
+                int next = -1;
+                while (numLevels < assumptions.length) {    // Decide the assumptions first
+                    int p = assumptions[numLevels];
+                    if (value(p) == 1) {
+                        trailLim[numLevels++] = trailSize;  // Already true, use an empty level
+                    } else if (value(p) == -1) {
+                        analyzeFinal(p ^ 1);
+                        return -1;
+                    } else {
+                        next = p;
+                        break;
+                    }
+                }
+                if (next == -1) {
+                    next = pickBranchLiteral();
+                }
+                if (next == -1) {   // Every variable is assigned without a conflict
+                    model = new boolean[numVariables + 1];
+                    for (int v = 1; v <= numVariables; v++) {
+                        model[v] = assigns[v] == 1;
+                    }
+                    return 1;
+                }
+                decisions++;
+                trailLim[numLevels++] = trailSize;
+                enqueue(next, null);
+            }
+        }
+    }
+
+    /**
+     * Propagates all enqueued assignments using the two watched literals.
+     *
+     * @return the falsified clause if there is a conflict, null otherwise
+     */
+    private Clause propagate()
+    {
+        long visits = 0;    // Counted in locals and added to the fields on the way out
+        long scanned = 0;
+        while (qhead < trailSize) {
+            int falseLit = trail[qhead++] ^ 1;
+            ClauseVec ws = watches[falseLit];
+            Clause[] list = ws.data;
+            int size = ws.size;
+            int i = 0;
+            int j = 0;
+            propagations++;
+
+            while (i < size) {
+                Clause c = list[i++];
+                int[] lits = c.lits;
+                visits++;
+                scanned++;
+                if (lits[0] == falseLit) {  // Make sure the false literal is at index 1
+                    lits[0] = lits[1];
+                    lits[1] = falseLit;
+                }
+                if (value(lits[0]) == 1) {  // Clause is already true
+                    list[j++] = c;
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < lits.length; k++) {     // Look for a new literal to watch
+                    scanned++;
+                    if (value(lits[k]) != -1) {
+                        lits[1] = lits[k];
+                        lits[k] = falseLit;
+                        watches[lits[1]].add(c);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                list[j++] = c;
+                if (value(lits[0]) == -1) {     // Every literal is false
+                    while (i < size) {
+                        list[j++] = list[i++];
+                    }
+                    ws.size = j;
+                    qhead = trailSize;
+                    clauseVisits += visits;
+                    literalVisits += scanned;
+                    return c;
+                }
+                enqueue(lits[0], c);    // Clause is unit
+            }
+            ws.size = j;
+        }
+        clauseVisits += visits;
+        literalVisits += scanned;
+        return null;
+    }
+
+    /**
+     * Analyzes a conflict and stores the 1-UIP learned clause in
+     * learntBuffer with the asserting literal at index 0 and a literal of
+     * the backtrack level at index 1.
+     *
+     * @param confl - the falsified clause
+     * @return level to jump back to
+     */
+    private int analyze(Clause confl)
+    {
+        int pathCount = 0;
+        int p = -1;
+        int index = trailSize - 1;
+        learntSize = 1;     // Index 0 is saved for the asserting literal
+
+        do {
+            if (confl.learnt) {
+                bumpClause(confl);
+            }
+            int[] lits = confl.lits;
+            for (int k = (p == -1 ? 0 : 1); k < lits.length; k++) {
+                int q = lits[k];
+                int v = q >> 1;
+                if (!seen[v] && level[v] > 0) {
+                    bumpVariable(v);
+                    seen[v] = true;
+                    if (level[v] >= numLevels) {
+                        pathCount++;
+                    } else {
+                        learntBuffer[learntSize++] = q;
+                    }
+                }
+            }
+            // Walk back the trail to the next marked literal
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            p = trail[index--];
+            confl = reason[p >> 1];
+            seen[p >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learntBuffer[0] = p ^ 1;
+
+        // Remove literals that are implied by other literals of the clause
+        int[] marked = Arrays.copyOf(learntBuffer, learntSize);
+        int size = 1;
+        for (int i = 1; i < learntSize; i++) {
+            Clause r = reason[learntBuffer[i] >> 1];
+            boolean redundant = r != null;
+            for (int k = 1; redundant && k < r.lits.length; k++) {
+                int v = r.lits[k] >> 1;
+                redundant = seen[v] || level[v] == 0;
+            }
+            if (!redundant) {
+                learntBuffer[size++] = learntBuffer[i];
+            }
+        }
+        learntSize = size;
+        for (int i = 1; i < marked.length; i++) {
+            seen[marked[i] >> 1] = false;
+        }
+
+        // Find the second highest level and move that literal to index 1
+        if (learntSize == 1) {
+            return 0;
+        }
+        int maxIndex = 1;
+        for (int i = 2; i < learntSize; i++) {
+            if (level[learntBuffer[i] >> 1] > level[learntBuffer[maxIndex] >> 1]) {
+                maxIndex = i;
+            }
+        }
+        int tmp = learntBuffer[1];
+        learntBuffer[1] = learntBuffer[maxIndex];
+        learntBuffer[maxIndex] = tmp;
+        return level[learntBuffer[1] >> 1];
+    }
+
+    /**
+     * Finds the assumptions that imply a literal by walking back the trail
+     * from it to the decisions it depends on. Every decision on the trail is
+     * an assumption, since assumptions are decided before anything else.
+     * The failed assumption itself and those decisions are saved in failed.
+     *
+     * @param p - true literal whose negation was assumed
+     */
+    private void analyzeFinal(int p)
+    {
+        int[] core = new int[numLevels + 1];
+        int size = 0;
+        core[size++] = toDimacs(p ^ 1);
+        seen[p >> 1] = true;
+        if (numLevels > 0) {
+            for (int i = trailSize - 1; i >= trailLim[0]; i--) {
+                int v = trail[i] >> 1;
+                if (!seen[v]) {
+                    continue;
+                }
+                Clause r = reason[v];
+                if (r == null) {
+                    core[size++] = toDimacs(trail[i]);
+                } else {
+                    for (int k = 1; k < r.lits.length; k++) {
+                        if (level[r.lits[k] >> 1] > 0) {
+                            seen[r.lits[k] >> 1] = true;
+                        }
+                    }
+                }
+                seen[v] = false;
+            }
+        }
+        seen[p >> 1] = false;
+        failed = Arrays.copyOf(core, size);
+    }
+
+    /**
+     * @param lit - literal in internal form
+     * @return the same literal in DIMACS form
+     */
+    private static int toDimacs(int lit)
+    {
+        return (lit & 1) == 1 ? -(lit >> 1) : lit >> 1;
+    }
+
+    /**
+     * Undoes all assignments above the given decision level. Saves the
+     * phase of each unassigned variable and puts it back in the heap.
+     *
+     * @param target - decision level to keep
+     */
+    private void cancelUntil(int target)
+    {
+        if (numLevels <= target) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLim[target]; i--) {
+            int v = trail[i] >> 1;
+            polarity[v] = (trail[i] & 1) == 1;
+            assigns[v] = 0;
+            reason[v] = null;
+            if (!order.contains(v)) {
+                order.insert(v);
+            }
+        }
+        trailSize = trailLim[target];
+        qhead = trailSize;
+        numLevels = target;
+    }
+
+    /**
+     * @return next decision literal, or -1 if all variables are assigned
+     */
+    private int pickBranchLiteral()
+    {
+        while (!order.isEmpty()) {
+            int v = order.removeMax();
+            if (assigns[v] == 0) {
+                return 2 * v + (polarity[v] ? 1 : 0);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Deletes half of the learned clauses, least active first. Binary
+     * clauses and clauses that are the reason for an assignment are kept.
+     */
+    private void reduceDB()
+    {
+        learnts.sort((a, b) -> Double.compare(a.activity, b.activity));
+        int half = learnts.size() / 2;
+        int kept = 0;
+        for (int i = 0; i < learnts.size(); i++) {
+            Clause c = learnts.get(i);
+            if (i < half && c.lits.length > 2 && !isLocked(c)) {
+                c.deleted = true;
+            } else {
+                learnts.set(kept++, c);
+            }
+        }
+        learnts.subList(kept, learnts.size()).clear();
+
+        for (ClauseVec ws : watches) {  // Drop the deleted clauses from the watch lists
+            int j = 0;
+            for (int i = 0; i < ws.size; i++) {
+                if (!ws.data[i].deleted) {
+                    ws.data[j++] = ws.data[i];
+                }
+            }
+            Arrays.fill(ws.data, j, ws.size, null);
+            ws.size = j;
+        }
+    }
+
+    /**
+     * @param c - a clause
+     * @return true if the clause is the reason of a current assignment
+     */
+    private boolean isLocked(Clause c)
+    {
+        int v = c.lits[0] >> 1;
+        return reason[v] == c && value(c.lits[0]) == 1;
+    }
+
+    /**
+     * Assigns a literal to true at the current decision level.
+     *
+     * @param lit - literal to assign
+     * @param from - clause that implied it, null for a decision
+     */
+    private void enqueue(int lit, Clause from)
+    {
+        int v = lit >> 1;
+        assigns[v] = (byte) ((lit & 1) == 0 ? 1 : -1);
+        level[v] = numLevels;
+        reason[v] = from;
+        trail[trailSize++] = lit;
+    }
+
+    /**
+     * @param lit - a literal
+     * @return 1 if the literal is true, -1 if false, 0 if unassigned
+     */
+    private int value(int lit)
+    {
+        int a = assigns[lit >> 1];
+        return (lit & 1) == 0 ? a : -a;
+    }
+
+    /**
+     * Adds a clause to the watch lists of its first two literals.
+     *
+     * @param c - clause to watch
+     */
+    private void attach(Clause c)
+    {
+        watches[c.lits[0]].add(c);
+        watches[c.lits[1]].add(c);
+    }
+
+    /**
+     * Increases the activity of a variable, rescaling all activities when
+     * they get too large.
+     *
+     * @param v - variable to bump
+     */
+    private void bumpVariable(int v)
+    {
+        activity[v] += varInc;
+        if (activity[v] > 1e100) {
+            for (int i = 1; i <= numVariables; i++) {
+                activity[i] *= 1e-100;
+            }
+            varInc *= 1e-100;
+        }
+        if (order.contains(v)) {
+            order.increased(v);
+        }
+    }
+
+    /**
+     * Increases the activity of a learned clause, rescaling all learned
+     * clause activities when they get too large.
+     *
+     * @param c - clause to bump
+     */
+    private void bumpClause(Clause c)
+    {
+        c.activity += clauseInc;
+        if (c.activity > 1e20) {
+            for (Clause l : learnts) {
+                l.activity *= 1e-20;
+            }
+            clauseInc *= 1e-20;
+        }
+    }
+
+    /**
+     * Finds the value of the Luby restart sequence (1 1 2 1 1 2 4 ...) at
+     * position x, scaled by y.
+     *
+     * @param y - base of the sequence
+     * @param x - position in the sequence
+     * @return y to the power of the Luby value
+     */
+    private static double luby(double y, int x)
+    {
+        int size = 1;
+        int seq = 0;
+        while (size < x + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            seq--;
+            x = x % size;
+        }
+        return Math.pow(y, seq);
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits of each solve() checked together with the stop flag,
+     *            propagated literals count as assignments
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * The limits count from the start of the current solve(), so every
+     * incremental solve(assumptions) call gets the whole budget.
+     *
+     * @return true if another thread asked the search to stop or a limit was reached
+     */
+    private boolean isStopped()
+    {
+        return (stop != null && stop.get()) || limits.isReached(startTime, propagations - startPropagations);
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * Returns the assumptions of the last solve() that together make the
+     * formula unsatisfiable. It is empty if the last solve() did not fail
+     * because of its assumptions, which includes a formula that is
+     * unsatisfiable on its own.
+     *
+     * @return failed - failed assumption literals in DIMACS form
+     */
+    public int[] getFailedAssumptions()
+    {
+        return failed.clone();
+    }
+
+    /**
+     * @return numVariables - holds number of variables, including added ones
+     */
+    public int getNumVariables()
+    {
+        return numVariables;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "cdcl";
+    }
+
+    /**
+     * @return conflicts - number of conflicts found so far
+     */
+    public long getConflicts()
+    {
+        return conflicts;
+    }
+
+    /**
+     * @return decisions - number of decisions made so far
+     */
+    public long getDecisions()
+    {
+        return decisions;
+    }
+
+    /**
+     * @return propagations - number of assigned literals propagated so far
+     */
+    public long getPropagations()
+    {
+        return propagations;
+    }
+
+    /**
+     * @return stats - propagated assignments, watched clause visits and
+     *         literals looked at by propagate()
+     */
+    public SolverStats getStats()
+    {
+        SolverStats stats = new SolverStats();
+        stats.add(propagations, clauseVisits, literalVisits);
+        return stats;
+    }
+
+    /**
+     * A clause with 2 or more literals. The two watched literals are kept
+     * at index 0 and 1.
+     */
+    private static class Clause {
+        int[] lits;
+        boolean learnt;
+        boolean deleted;
+        double activity;
+
+        Clause(int[] lits, boolean learnt)
+        {
+            this.lits = lits;
+            this.learnt = learnt;
+        }
+    }
+
+    /**
+     * Growable array of clauses used for the watch lists.
+     */
+    private static class ClauseVec {
+        Clause[] data = new Clause[4];
+        int size;
+
+        void add(Clause c)
+        {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = c;
+        }
+    }
+
+    /**
+     * Binary max-heap of variables ordered by activity.
+     */
+    private static class VarHeap {
+        private double[] activity;
+        private int[] heap;
+        private int[] indices;      // Position of each variable in heap, -1 if absent
+        private int size;
+
+        VarHeap(double[] activity)
+        {
+            this.activity = activity;
+            indices = new int[activity.length];
+            Arrays.fill(indices, -1);
+            heap = new int[activity.length];
+        }
+
+        void grow(double[] newActivity)
+        {
+            activity = newActivity;
+            int old = indices.length;
+            indices = Arrays.copyOf(indices, newActivity.length);
+            Arrays.fill(indices, old, indices.length, -1);
+            heap = Arrays.copyOf(heap, newActivity.length);
+        }
+
+        boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        boolean contains(int v)
+        {
+            return indices[v] >= 0;
+        }
+
+        void insert(int v)
+        {
+            heap[size] = v;
+            indices[v] = size;
+            siftUp(size++);
+        }
+
+        void increased(int v)
+        {
+            siftUp(indices[v]);
+        }
+
+        int removeMax()
+        {
+            int top = heap[0];
+            indices[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                indices[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i)
+        {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activity[heap[parent]] >= activity[v]) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                indices[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            indices[v] = i;
+        }
+
+        private void siftDown(int i)
+        {
+            int v = heap[i];
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+                    child++;
+                }
+                if (activity[heap[child]] <= activity[v]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                indices[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            indices[v] = i;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * DAA - CachedEngine class
+ *
+ * Purpose: This class puts a ResultCache in front of the engine picked for
+ * a file. solve() first looks the formula up by its canonical hash. On a hit
+ * the stored answer is used and the engine is never made, so a formula that
+ * was solved before costs one hash instead of a search. A stored model is
+ * still checked against the clauses, and if it does not satisfy them the
+ * entry is dropped and the formula is solved as if it had not been found. On
+ * a miss the engine is made and run, and its answer is stored.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class CachedEngine implements SATEngine {
+    private ResultCache cache;
+    private ClauseDatabase database;        // Holds the formula, used for the key and to check models
+    private Supplier<SATEngine> factory;    // Makes the engine on a miss
+    private SATEngine engine;               // Engine that solved the formula, null on a hit
+    private AtomicBoolean stopFlag;         // Passed on to the engine once it is made
+    private SolveLimits limits;             // Passed on to the engine once it is made
+    private volatile Result result;
+    private boolean[] model;
+    private boolean hit;                    // true if the answer came from the cache
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param c - ResultCache to look the formula up in
+     * @param db - ClauseDatabase holding the formula
+     * @param inner - makes the engine for the formula if it is not in the cache
+     */
+    public CachedEngine(ResultCache c, ClauseDatabase db, Supplier<SATEngine> inner)
+    {
+        cache = c;
+        database = db;
+        factory = inner;
+    }
+
+    /**
+     * Answers from the cache if the formula is there, otherwise solves it
+     * and stores the answer.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        result = Result.UNKNOWN;
+        model = null;
+        hit = false;
+        String key = ResultCache.key(database);
+        boolean[] answer = cache.get(key);
+        if (answer != null && answer.length == 0) {
+            hit = true;
+            result = Result.UNSAT;
+            return false;
+        }
+        if (answer != null && database.isSatisfiedBy(answer)) {
+            hit = true;
+            model = answer;
+            result = Result.SAT;
+            return true;
+        }
+        if (answer != null) {
+            cache.remove(key);  // Wrong model, the entry cannot be trusted
+        }
+
+        if (engine == null) {
+            engine = factory.get();
+            if (stopFlag != null) {
+                engine.setStopFlag(stopFlag);
+            }
+            if (limits != null) {
+                engine.setLimits(limits);
+            }
+        }
+        boolean solved = engine.solve();
+        model = solved ? engine.getModel() : null;
+        result = engine.getResult();
+        cache.put(key, result, model);
+        return solved;
+    }
+
+    /**
+     * @return model - model of the formula, from the cache or the engine
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - "cache" on a hit, otherwise the name of the engine
+     */
+    public String getName()
+    {
+        return engine == null ? "cache" : engine.getName();
+    }
+
+    /**
+     * @return result - result of the last solve(), UNKNOWN while it runs
+     */
+    public Result getResult()
+    {
+        return result == Result.UNKNOWN && engine != null ? engine.getResult() : result;
+    }
+
+    /**
+     * @return progress - 1 on a hit, otherwise the progress of the engine
+     */
+    public double getProgress()
+    {
+        return engine == null ? SATEngine.super.getProgress() : engine.getProgress();
+    }
+
+    /**
+     * @return stats - search counters of the engine, all zero on a hit
+     */
+    public SolverStats getStats()
+    {
+        return engine == null ? new SolverStats() : engine.getStats();
+    }
+
+    /**
+     * @return workers - number of threads the engine uses, 1 on a hit
+     */
+    public int getWorkers()
+    {
+        return engine == null ? 1 : engine.getWorkers();
+    }
+
+    /**
+     * @param flag - flag that stops solve() when it is set
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stopFlag = flag;
+        if (engine != null) {
+            engine.setStopFlag(flag);
+        }
+    }
+
+    /**
+     * @param l - limits passed on to the engine
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+        if (engine != null) {
+            engine.setLimits(l);
+        }
+    }
+
+    /**
+     * @return hit - true if the last solve() was answered from the cache
+     */
+    public boolean isHit()
+    {
+        return hit;
+    }
+
+    /**
+     * @return engine - engine that solved the formula, null if it was answered from the cache
+     */
+    public SATEngine getEngine()
+    {
+        return engine;
+    }
+}
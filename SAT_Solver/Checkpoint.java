@@ -0,0 +1,212 @@
+package bruteforce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DAA - Checkpoint class
+ *
+ * Purpose: This class saves and loads the position of a brute force search
+ * so a long run can go on after a crash or restart. The position of Solver is
+ * its counter, the long array that holds the current assignment, so a
+ * checkpoint is that array together with the assignments tried and skipped
+ * so far and whether the range is finished.
+ *
+ * Checkpoints are kept in a directory, one file per search range. The file
+ * name holds a hash of the compiled formula, which also covers the variable
+ * order, and the fixed prefix of the range, so a checkpoint is only ever
+ * loaded by the same search and each ParallelSolver task has a file of its
+ * own. A file is written to a temporary file first, forced to disk and then
+ * renamed over the old one, so a crash while saving leaves the last complete
+ * checkpoint in place.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class Checkpoint {
+    private static final int MAGIC = 0x42464350;    // "BFCP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 53;     // Everything before the counter words
+
+    private long key;               // Hash of the formula and variable order
+    private int numVariables;
+    private int fixedBits;          // Number of counter bits fixed by the prefix
+    private long prefix;            // Values of the fixed bits
+    private boolean finished;       // true if the whole range was searched without a model
+    private long tried;             // Assignments tried so far
+    private long skipped;           // Assignments skipped so far
+    private long[] counter;         // Current assignment of the search
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param key - hash of the formula and variable order
+     * @param numVariables - number of variables in the formula
+     * @param fixedBits - number of counter bits fixed by the prefix
+     * @param prefix - values of the fixed bits
+     * @param finished - true if the range was searched without a model
+     * @param tried - assignments tried so far
+     * @param skipped - assignments skipped so far
+     * @param counter - current assignment of the search
+     */
+    public Checkpoint(long key, int numVariables, int fixedBits, long prefix, boolean finished,
+            long tried, long skipped, long[] counter)
+    {
+        this.key = key;
+        this.numVariables = numVariables;
+        this.fixedBits = fixedBits;
+        this.prefix = prefix;
+        this.finished = finished;
+        this.tried = tried;
+        this.skipped = skipped;
+        this.counter = counter;
+    }
+
+    /**
+     * Hashes a compiled formula with 64 bit FNV-1a.
+     *
+     * @param numVariables - number of variables in the formula
+     * @param offsets - start of each clause
+     * @param literalBits - counter bit and sign of every literal
+     * @return key - hash of the formula and variable order
+     */
+    public static long hash(int numVariables, int[] offsets, int[] literalBits)
+    {
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ numVariables) * 0x100000001b3L;
+        for (int offset : offsets) {
+            h = (h ^ offset) * 0x100000001b3L;
+        }
+        for (int code : literalBits) {
+            h = (h ^ code) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * @param dir - checkpoint directory
+     * @param key - hash of the formula and variable order
+     * @param fixedBits - number of counter bits fixed by the prefix
+     * @param prefix - values of the fixed bits
+     * @return path - file that holds the checkpoint of this range
+     */
+    public static Path file(Path dir, long key, int fixedBits, long prefix)
+    {
+        return dir.resolve(String.format("%016x-%d-%x.ckpt", key, fixedBits, prefix));
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file in the same directory,
+     * forces it to disk and renames it over the old file.
+     *
+     * @param path - file to write
+     */
+    public void save(Path path)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * counter.length);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(key).putInt(numVariables).putInt(fixedBits)
+                .putLong(prefix).put((byte) (finished ? 1 : 0)).putLong(tried).putLong(skipped)
+                .putInt(counter.length);
+        for (long word : counter) {
+            buffer.putLong(word);
+        }
+        buffer.flip();
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save checkpoint " + path, e);
+        }
+    }
+
+    /**
+     * Reads a checkpoint and checks that it belongs to the given search.
+     *
+     * @param path - file to read
+     * @param key - hash of the formula and variable order
+     * @param fixedBits - number of counter bits fixed by the prefix
+     * @param prefix - values of the fixed bits
+     * @return checkpoint - the saved position, or null if there is none for this search
+     */
+    public static Checkpoint load(Path path, long key, int fixedBits, long prefix)
+    {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read checkpoint " + path, e);
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong() != key) {
+            return null;
+        }
+        int variables = buffer.getInt();
+        if (buffer.getInt() != fixedBits || buffer.getLong() != prefix) {
+            return null;
+        }
+        boolean done = buffer.get() != 0;
+        long tried = buffer.getLong();
+        long skipped = buffer.getLong();
+        int words = buffer.getInt();
+        if (words != (variables + 63) / 64 || buffer.remaining() != 8 * words) {
+            return null;    // Cut short or from another formula size
+        }
+        long[] counter = new long[words];
+        for (int w = 0; w < words; w++) {
+            counter[w] = buffer.getLong();
+        }
+        return new Checkpoint(key, variables, fixedBits, prefix, done, tried, skipped, counter);
+    }
+
+    /**
+     * @return finished - true if the range was searched without a model
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * @return tried - holds number of assignments tried so far
+     */
+    public long getTried()
+    {
+        return tried;
+    }
+
+    /**
+     * @return skipped - holds number of assignments skipped so far
+     */
+    public long getSkipped()
+    {
+        return skipped;
+    }
+
+    /**
+     * @return counter - holds the saved assignment of the search
+     */
+    public long[] getCounter()
+    {
+        return counter;
+    }
+}
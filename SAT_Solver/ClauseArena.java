@@ -0,0 +1,175 @@
+package bruteforce;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * DAA - ClauseArena class
+ *
+ * Purpose: This class holds the clauses of a formula outside the Java heap.
+ * The literals are packed back to back in one direct ByteBuffer and the
+ * offsets of the clauses in a second one, the same layout as the int arrays
+ * of ClauseDatabase, so a formula with millions of clauses is two blocks of
+ * native memory instead of heap arrays the garbage collector has to copy.
+ * DimacsParser adds the literals one at a time while it reads and the
+ * buffers grow by doubling like an ArrayList. An arena can also be laid over
+ * buffers that already hold a formula, such as a mapped FormulaCache file.
+ * The clauses are read back with a ClauseView.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ClauseArena {
+    private IntBuffer literals;     // Literals of every clause back to back
+    private IntBuffer offsets;      // Start of each clause followed by the total length
+    private int literalCount;
+    private int clauseCount;
+    private boolean readOnly;       // true if laid over buffers that belong to someone else
+
+    /**
+     * Constructor
+     *
+     * Allocates empty buffers that grow as clauses are added.
+     *
+     * @param clauses - clauses to make room for at first
+     * @param literalsHint - literals to make room for at first
+     */
+    public ClauseArena(int clauses, int literalsHint)
+    {
+        literals = allocate(Math.max(literalsHint, 16));
+        offsets = allocate(Math.max(clauses, 16) + 1);
+        offsets.put(0, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * Lays the arena over buffers that already hold a formula. No clauses
+     * can be added to it.
+     *
+     * @param lits - literals of every clause back to back, limit at the end of the last one
+     * @param starts - start of each clause followed by the total length
+     */
+    public ClauseArena(IntBuffer lits, IntBuffer starts)
+    {
+        literals = lits;
+        offsets = starts;
+        literalCount = lits.limit();
+        clauseCount = starts.limit() - 1;
+        readOnly = true;
+    }
+
+    /**
+     * @param ints - number of ints
+     * @return buffer - direct buffer of that many ints in the native byte order
+     */
+    private static IntBuffer allocate(int ints)
+    {
+        return ByteBuffer.allocateDirect(4 * ints).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * @param old - full buffer
+     * @param used - ints in use
+     * @return buffer - direct buffer of twice the size holding the same ints
+     */
+    private static IntBuffer grow(IntBuffer old, int used)
+    {
+        if (old.capacity() >= Integer.MAX_VALUE / 8) {
+            throw new IllegalStateException("Formula is too large for a clause arena");
+        }
+        IntBuffer bigger = allocate(old.capacity() * 2);
+        bigger.put(old.duplicate().position(0).limit(used));
+        return bigger;
+    }
+
+    /**
+     * Makes room for more clauses, such as the count given by a DIMACS
+     * header, so the offsets do not have to grow while they are added.
+     *
+     * @param clauses - total number of clauses expected
+     */
+    public void reserve(int clauses)
+    {
+        if (!readOnly && clauses + 1 > offsets.capacity()) {
+            IntBuffer bigger = allocate(clauses + 1);
+            bigger.put(offsets.duplicate().position(0).limit(clauseCount + 1));
+            offsets = bigger;
+        }
+    }
+
+    /**
+     * Adds a literal to the clause being built.
+     *
+     * @param literal - literal in DIMACS numbering
+     */
+    public void addLiteral(int literal)
+    {
+        if (literalCount == literals.capacity()) {
+            literals = grow(literals, literalCount);
+        }
+        literals.put(literalCount++, literal);
+    }
+
+    /**
+     * Ends the clause being built. The literals added since the last call
+     * make up the clause.
+     */
+    public void endClause()
+    {
+        if (clauseCount + 2 > offsets.capacity()) {
+            offsets = grow(offsets, clauseCount + 1);
+        }
+        offsets.put(++clauseCount, literalCount);
+    }
+
+    /**
+     * @return literals - read-only view of the literals of every clause, limit at the end
+     */
+    public IntBuffer literals()
+    {
+        return literals.asReadOnlyBuffer().position(0).limit(literalCount);
+    }
+
+    /**
+     * @return offsets - read-only view of the clause starts followed by the total length
+     */
+    public IntBuffer offsets()
+    {
+        return offsets.asReadOnlyBuffer().position(0).limit(clauseCount + 1);
+    }
+
+    /**
+     * @return view - flyweight that reads the clauses of the arena
+     */
+    public ClauseView view()
+    {
+        return new ClauseView(literals(), offsets());
+    }
+
+    /**
+     * @return literalCount - holds number of literals added
+     */
+    public int getLiteralCount()
+    {
+        return literalCount;
+    }
+
+    /**
+     * @return clauseCount - holds number of clauses ended
+     */
+    public int getClauseCount()
+    {
+        return clauseCount;
+    }
+
+    /**
+     * @return bytes - native memory held by the buffers
+     */
+    public long getOffHeapBytes()
+    {
+        return 4L * (literals.capacity() + offsets.capacity());
+    }
+}
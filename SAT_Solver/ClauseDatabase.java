@@ -0,0 +1,232 @@
+package bruteforce;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * DAA - ClauseDatabase class
+ *
+ * Purpose: This class holds a formula in a flat primitive form that the
+ * solvers can read without parsing strings or boxing values. All the literals
+ * of all the clauses are stored one after the other in a single int array,
+ * and a second array holds the offset where each clause starts. Clause i is
+ * made of literals[offsets[i]] up to literals[offsets[i + 1] - 1]. Literals
+ * use the DIMACS numbering, so a negative number is a negated variable. This
+ * class also contains accessor methods and a method to check a model.
+ *
+ * The clauses can also be kept off the heap in a ClauseArena. They are never
+ * copied back onto the heap as a whole: code that goes through the clauses,
+ * such as the compile step of every engine, reads them with view() or the
+ * buffers and leaves them where they are. An engine that indexes the raw
+ * literals or offsets in its search loop asks for its own copy with
+ * copyLiterals() or copyOffsets(), so only the arrays it uses are copied.
+ *
+ * The occurrence lists are built the first time they are asked for. They are
+ * indexed by literal (see occurrenceIndex()) and hold the clauses that contain
+ * that literal, stored the same flat way as the clauses.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ClauseDatabase {
+    private int numVariables;   // Holds # of variables in formula
+    private int[] literals;     // Holds the literals of every clause back to back, null with an arena
+    private int[] offsets;      // Holds the start of each clause, plus the end of the last one, null with an arena
+    private ClauseArena arena;  // Holds the clauses off the heap, null if only the arrays hold them
+    private int[] occurrenceStarts;     // Start of each literal's list in occurrenceClauses
+    private int[] occurrenceClauses;    // Clause numbers that contain each literal, back to back
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param variables - number of variables in the formula
+     * @param lits - literals of every clause back to back
+     * @param starts - start offset of each clause followed by the total length
+     */
+    public ClauseDatabase(int variables, int[] lits, int[] starts)
+    {
+        numVariables = variables;
+        literals = lits;
+        offsets = starts;
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes a formula whose clauses are kept off the heap.
+     *
+     * @param variables - number of variables in the formula
+     * @param clauses - ClauseArena holding the clauses
+     */
+    public ClauseDatabase(int variables, ClauseArena clauses)
+    {
+        numVariables = variables;
+        arena = clauses;
+    }
+
+    /**
+     * @return view - flyweight that reads the clauses without copying them onto the heap
+     */
+    public ClauseView view()
+    {
+        return new ClauseView(literalBuffer(), offsetBuffer());
+    }
+
+    /**
+     * @return literals - buffer of the literals of every clause, from the arena if there is one
+     */
+    public IntBuffer literalBuffer()
+    {
+        return arena != null ? arena.literals() : IntBuffer.wrap(literals).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return offsets - buffer of the clause starts followed by the total length
+     */
+    public IntBuffer offsetBuffer()
+    {
+        return arena != null ? arena.offsets() : IntBuffer.wrap(offsets).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return literal count - number of literals in all clauses together
+     */
+    public int getLiteralCount()
+    {
+        return arena != null ? arena.getLiteralCount() : literals.length;
+    }
+
+    /**
+     * @return bytes - native memory held by the arena, 0 if there is none
+     */
+    public long getOffHeapBytes()
+    {
+        return arena != null ? arena.getOffHeapBytes() : 0;
+    }
+
+    /**
+     * Checks if an assignment makes every clause true.
+     *
+     * @param model - values of the variables, index 0 unused
+     * @return true if every clause has a true literal
+     */
+    public boolean isSatisfiedBy(boolean[] model)
+    {
+        if (model == null || model.length <= numVariables) {
+            return false;
+        }
+        ClauseView clause = view();
+        for (int i = 0; i < getNumClauses(); i++) {
+            clause.moveTo(i);
+            boolean clauseValue = false;
+            for (int k = 0; k < clause.size() && !clauseValue; k++) {
+                int literal = clause.get(k);
+                clauseValue = (literal > 0) == model[Math.abs(literal)];
+            }
+            if (!clauseValue) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the literal to clause occurrence lists if they do not exist yet.
+     * The lists of literal lit are occurrenceClauses[occurrenceStarts[i]] up
+     * to occurrenceClauses[occurrenceStarts[i + 1] - 1] where
+     * i = occurrenceIndex(lit).
+     */
+    private synchronized void buildOccurrences()
+    {
+        if (occurrenceClauses != null) {
+            return;
+        }
+        int[] starts = new int[2 * numVariables + 3];
+        IntBuffer all = literalBuffer();
+        for (int k = 0; k < all.limit(); k++) {     // Count the occurrences of each literal
+            starts[occurrenceIndex(all.get(k)) + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] next = Arrays.copyOf(starts, starts.length);
+        int[] lists = new int[all.limit()];
+        ClauseView clause = view();
+        for (int c = 0; c < getNumClauses(); c++) {
+            clause.moveTo(c);
+            for (int k = 0; k < clause.size(); k++) {
+                lists[next[occurrenceIndex(clause.get(k))]++] = c;
+            }
+        }
+        occurrenceStarts = starts;
+        occurrenceClauses = lists;
+    }
+
+    /**
+     * @param literal - a DIMACS literal
+     * @return position of the literal's list in the occurrence arrays
+     */
+    public static int occurrenceIndex(int literal)
+    {
+        return literal > 0 ? 2 * literal : -2 * literal + 1;
+    }
+
+    /**
+     * @return occurrenceStarts - start of each literal's occurrence list
+     */
+    public int[] getOccurrenceStarts()
+    {
+        buildOccurrences();
+        return occurrenceStarts;
+    }
+
+    /**
+     * @return occurrenceClauses - clause numbers of every occurrence list back to back
+     */
+    public int[] getOccurrenceClauses()
+    {
+        buildOccurrences();
+        return occurrenceClauses;
+    }
+
+    /**
+     * @return numVariables - holds number of variables in formula
+     */
+    public int getNumVariables()
+    {
+        return numVariables;
+    }
+
+    /**
+     * @return number of clauses stored
+     */
+    public int getNumClauses()
+    {
+        return arena != null ? arena.getClauseCount() : offsets.length - 1;
+    }
+
+    /**
+     * @return literals - new array of the literals of every clause back to
+     *         back, which the caller may change
+     */
+    public int[] copyLiterals()
+    {
+        int[] lits = new int[getLiteralCount()];
+        literalBuffer().get(lits);
+        return lits;
+    }
+
+    /**
+     * @return offsets - new array of the start of each clause followed by
+     *         the total length, which the caller may change
+     */
+    public int[] copyOffsets()
+    {
+        int[] starts = new int[getNumClauses() + 1];
+        offsetBuffer().get(starts);
+        return starts;
+    }
+}
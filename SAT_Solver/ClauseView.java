@@ -0,0 +1,69 @@
+package bruteforce;
+
+import java.nio.IntBuffer;
+
+/**
+ * DAA - ClauseView class
+ *
+ * Purpose: This class is a flyweight that reads one clause at a time out of
+ * the literal and offset buffers of a ClauseDatabase or ClauseArena. moveTo()
+ * points the same object at another clause, so going through millions of
+ * clauses makes no objects and the clauses can stay off the heap.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ClauseView {
+    private final IntBuffer literals;   // Literals of every clause back to back
+    private final IntBuffer offsets;    // Start of each clause followed by the total length
+    private int start;                  // Position of the current clause's first literal
+    private int size;                   // Number of literals in the current clause
+
+    /**
+     * Constructor
+     *
+     * Initializes the buffers. The view starts on clause 0.
+     *
+     * @param literals - literals of every clause back to back
+     * @param offsets - start of each clause followed by the total length
+     */
+    public ClauseView(IntBuffer literals, IntBuffer offsets)
+    {
+        this.literals = literals;
+        this.offsets = offsets;
+        if (offsets.limit() > 1) {
+            moveTo(0);
+        }
+    }
+
+    /**
+     * Points the view at another clause.
+     *
+     * @param clause - clause number
+     * @return this view, now on the given clause
+     */
+    public ClauseView moveTo(int clause)
+    {
+        start = offsets.get(clause);
+        size = offsets.get(clause + 1) - start;
+        return this;
+    }
+
+    /**
+     * @return size - number of literals in the current clause
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param k - position in the clause, from 0
+     * @return literal - the k-th literal of the current clause in DIMACS numbering
+     */
+    public int get(int k)
+    {
+        return literals.get(start + k);
+    }
+}
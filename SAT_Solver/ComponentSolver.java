@@ -0,0 +1,417 @@
+package bruteforce;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * DAA - ComponentSolver class
+ *
+ * Purpose: This class splits a formula into parts that share no variables
+ * and solves each part with an engine of its own. Two variables are in the
+ * same part when some clause has both of them, which split() finds with a
+ * union-find over the variables. A formula of parts with n1, n2, ...
+ * variables then costs 2^n1 + 2^n2 + ... assignments instead of
+ * 2^(n1 + n2 + ...). The parts are solved at the same time on a thread pool,
+ * smallest first. The engine of every part has a stop flag of its own, so
+ * an engine that sets its flag when it is done, such as ParallelSolver or
+ * PortfolioSolver, never stops the other parts. The flags of all parts are
+ * set when one part is unsatisfiable, which is enough to end the search,
+ * or when the outside stop flag is set, which is checked while the parts
+ * run. The model of each part is checked against the clauses of the part
+ * and counts as UNKNOWN if it does not satisfy them. The models of the
+ * parts are merged into one model of the whole formula, and variables that
+ * are in no clause are set to false.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ComponentSolver implements SATEngine {
+    private static final long POLL_MILLIS = 10;     // How often the outside stop flag is checked while parts run
+
+    private int numVariables;
+    private boolean empty;                      // true if the formula has an empty clause
+    private ArrayList<Component> components;    // Parts of the formula, smallest first
+    private ArrayList<SATEngine> engines;       // Engine of each part
+    private int workers;                        // Parts solved at the same time
+    private ArrayList<AtomicBoolean> flags;     // Stop flag of each part's engine
+    private AtomicBoolean stop;                 // Outside stop flag, only read
+    private volatile Result result;
+    private boolean[] model;
+
+    /**
+     * Constructor
+     *
+     * Splits the formula and makes an engine for every part.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param factory - makes the engine for the formula of one part
+     * @param threads - most parts solved at the same time
+     */
+    public ComponentSolver(ClauseDatabase db, Function<ClauseDatabase, SATEngine> factory, int threads)
+    {
+        numVariables = db.getNumVariables();
+        ClauseView clause = db.view();
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            empty |= clause.moveTo(c).size() == 0;
+        }
+        components = split(db);
+        engines = new ArrayList<>();
+        flags = new ArrayList<>();
+        for (Component part : components) {
+            SATEngine engine = factory.apply(part.database);
+            AtomicBoolean flag = new AtomicBoolean();
+            engine.setStopFlag(flag);
+            engines.add(engine);
+            flags.add(flag);
+        }
+        workers = Math.max(1, Math.min(threads, components.size()));
+    }
+
+    /**
+     * Finds the parts of a formula. Every clause is put in the part of its
+     * variables and the variables of each part are renumbered from 1 in
+     * the order they come in the formula.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return parts - the parts in order of increasing number of variables
+     */
+    public static ArrayList<Component> split(ClauseDatabase db)
+    {
+        int n = db.getNumVariables();
+        IntBuffer literals = db.literalBuffer();    // Read where they are, an arena's stay off the heap
+        IntBuffer offsets = db.offsetBuffer();
+        int[] parent = new int[n + 1];
+        for (int v = 0; v <= n; v++) {
+            parent[v] = v;
+        }
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            for (int k = offsets.get(c) + 1; k < offsets.get(c + 1); k++) {
+                int a = find(parent, Math.abs(literals.get(offsets.get(c))));
+                int b = find(parent, Math.abs(literals.get(k)));
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+
+        // Number the parts and the variables inside each part
+        boolean[] used = new boolean[n + 1];
+        for (int k = 0; k < literals.limit(); k++) {
+            used[Math.abs(literals.get(k))] = true;
+        }
+        int[] partOf = new int[n + 1];
+        int[] local = new int[n + 1];
+        ArrayList<int[]> variables = new ArrayList<>();     // Original numbers of each part's variables
+        ArrayList<Integer> counts = new ArrayList<>();
+        int[] partOfRoot = new int[n + 1];
+        Arrays.fill(partOfRoot, -1);
+        for (int v = 1; v <= n; v++) {
+            if (!used[v]) {
+                continue;
+            }
+            int root = find(parent, v);
+            if (partOfRoot[root] == -1) {
+                partOfRoot[root] = counts.size();
+                counts.add(0);
+            }
+            int p = partOfRoot[root];
+            partOf[v] = p;
+            local[v] = counts.get(p) + 1;
+            counts.set(p, counts.get(p) + 1);
+        }
+        for (int p = 0; p < counts.size(); p++) {
+            variables.add(new int[counts.get(p) + 1]);
+        }
+        for (int v = 1; v <= n; v++) {
+            if (used[v]) {
+                variables.get(partOf[v])[local[v]] = v;
+            }
+        }
+
+        // Copy the clauses of each part with the new variable numbers
+        int[] literalCount = new int[counts.size()];
+        int[] clauseCount = new int[counts.size()];
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            if (offsets.get(c) < offsets.get(c + 1)) {
+                int p = partOf[Math.abs(literals.get(offsets.get(c)))];
+                literalCount[p] += offsets.get(c + 1) - offsets.get(c);
+                clauseCount[p]++;
+            }
+        }
+        int[][] partLiterals = new int[counts.size()][];
+        int[][] partOffsets = new int[counts.size()][];
+        for (int p = 0; p < counts.size(); p++) {
+            partLiterals[p] = new int[literalCount[p]];
+            partOffsets[p] = new int[clauseCount[p] + 1];
+        }
+        int[] filled = new int[counts.size()];
+        int[] clausesDone = new int[counts.size()];
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            if (offsets.get(c) == offsets.get(c + 1)) {
+                continue;   // Empty clauses belong to no part, the constructor notes them
+            }
+            int p = partOf[Math.abs(literals.get(offsets.get(c)))];
+            for (int k = offsets.get(c); k < offsets.get(c + 1); k++) {
+                int v = Math.abs(literals.get(k));
+                partLiterals[p][filled[p]++] = literals.get(k) < 0 ? -local[v] : local[v];
+            }
+            partOffsets[p][++clausesDone[p]] = filled[p];
+        }
+
+        ArrayList<Component> parts = new ArrayList<>();
+        for (int p = 0; p < counts.size(); p++) {
+            ClauseDatabase part = new ClauseDatabase(counts.get(p), partLiterals[p], partOffsets[p]);
+            parts.add(new Component(part, variables.get(p)));
+        }
+        parts.sort(Comparator.comparingInt(part -> part.database.getNumVariables()));
+        return parts;
+    }
+
+    /**
+     * Finds the root of a variable's set and halves the path on the way.
+     *
+     * @param parent - parent of each variable in the union-find forest
+     * @param v - variable
+     * @return root - variable at the root of the set
+     */
+    private static int find(int[] parent, int v)
+    {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Solves the parts on a thread pool. Stops all parts as soon as one is
+     * unsatisfiable or the outside stop flag is set.
+     *
+     * @return true if every part is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        if (empty) {
+            result = Result.UNSAT;
+            return false;
+        }
+        result = Result.UNKNOWN;    // Until all parts end, so getProgress() stays live
+        Result outcome = Result.SAT;
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "component");
+            t.setDaemon(true);
+            return t;
+        });
+        ExecutorCompletionService<Integer> done = new ExecutorCompletionService<>(pool);
+        boolean stopped = stop != null && stop.get();
+        for (AtomicBoolean flag : flags) {
+            flag.set(stopped);
+        }
+        try {
+            for (int p = 0; p < engines.size(); p++) {
+                int index = p;
+                SATEngine engine = engines.get(p);
+                AtomicBoolean flag = flags.get(p);
+                done.submit(() -> {
+                    if (!flag.get()) {
+                        engine.solve();
+                    }
+                    return index;
+                });
+            }
+            int finished = 0;
+            while (finished < engines.size()) {
+                Future<Integer> next = done.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    if (stop != null && stop.get()) {
+                        stopParts();    // Stopped from outside
+                    }
+                    continue;
+                }
+                finished++;
+                int p = next.get();
+                Result part = engines.get(p).getResult();
+                if (part == Result.SAT && !components.get(p).database.isSatisfiedBy(engines.get(p).getModel())) {
+                    part = Result.UNKNOWN;  // Never merge a model that does not satisfy its part
+                }
+                if (part == Result.UNSAT) {
+                    outcome = Result.UNSAT;
+                    stopParts();        // One part is enough, end the others
+                } else if (part != Result.SAT && outcome == Result.SAT) {
+                    outcome = Result.UNKNOWN;   // Not started or stopped before it finished
+                }
+            }
+        } catch (InterruptedException e) {
+            stopParts();
+            outcome = Result.UNKNOWN;
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            stopParts();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        if (outcome == Result.SAT) {    // Merge the models of the parts
+            model = new boolean[numVariables + 1];
+            for (int p = 0; p < components.size(); p++) {
+                int[] variables = components.get(p).variables;
+                boolean[] part = engines.get(p).getModel();
+                for (int v = 1; v < variables.length; v++) {
+                    model[variables[v]] = part[v];
+                }
+            }
+        }
+        result = outcome;
+        return result == Result.SAT;
+    }
+
+    /**
+     * Sets the stop flags of the engines of all parts.
+     */
+    private void stopParts()
+    {
+        for (AtomicBoolean flag : flags) {
+            flag.set(true);
+        }
+    }
+
+    /**
+     * Watches the given flag while the parts run and stops all of them once
+     * it is set. The flag is only read, the parts keep flags of their own.
+     *
+     * @param flag - flag that stops solve() when it is set
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param limits - limits given to the engine of every part
+     */
+    public void setLimits(SolveLimits limits)
+    {
+        for (SATEngine engine : engines) {
+            engine.setLimits(limits);
+        }
+    }
+
+    /**
+     * @return result - UNSAT if any part is unsatisfiable, SAT if all are
+     *         satisfiable, UNKNOWN otherwise
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return model - merged model of all parts
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return progress - progress of the part that got the least far
+     */
+    public double getProgress()
+    {
+        if (result != Result.UNKNOWN) {
+            return 1;
+        }
+        double least = 1;
+        for (SATEngine engine : engines) {
+            least = Math.min(least, engine.getProgress());
+        }
+        return least;
+    }
+
+    /**
+     * @return stats - counters of all parts added together
+     */
+    public SolverStats getStats()
+    {
+        SolverStats total = new SolverStats();
+        for (SATEngine engine : engines) {
+            SolverStats s = engine.getStats();
+            total.add(s.getAssignments(), s.getClauseEvaluations(), s.getLiteralsInspected());
+            total.addSkipped(s.getSkipped());
+        }
+        return total;
+    }
+
+    /**
+     * @return name - names of the engines used for the parts, joined by +
+     */
+    public String getName()
+    {
+        ArrayList<String> names = new ArrayList<>();
+        for (SATEngine engine : engines) {
+            if (!names.contains(engine.getName())) {
+                names.add(engine.getName());
+            }
+        }
+        return names.isEmpty() ? "components" : String.join("+", names);
+    }
+
+    /**
+     * @return workers - parts solved at the same time times the threads of one engine
+     */
+    public int getWorkers()
+    {
+        return engines.isEmpty() ? 1 : workers * engines.get(0).getWorkers();
+    }
+
+    /**
+     * @return number of parts the formula was split into
+     */
+    public int getNumComponents()
+    {
+        return components.size();
+    }
+
+    /**
+     * One part of the formula and the original numbers of its variables.
+     */
+    public static class Component {
+        private final ClauseDatabase database;  // Clauses of the part, variables numbered from 1
+        private final int[] variables;          // variables[i] is the original number of variable i
+
+        Component(ClauseDatabase database, int[] variables)
+        {
+            this.database = database;
+            this.variables = variables;
+        }
+
+        /**
+         * @return database - clauses of the part
+         */
+        public ClauseDatabase getDatabase()
+        {
+            return database;
+        }
+
+        /**
+         * @return variables - original number of each variable of the part, index 0 unused
+         */
+        public int[] getVariables()
+        {
+            return variables;
+        }
+    }
+}
@@ -0,0 +1,773 @@
+package bruteforce;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * DAA - Config class
+ *
+ * Purpose: This class holds the options given to the program on the command
+ * line. The parse() method reads the arguments passed to Main and sets the
+ * instance variables. The createEngine() method makes the solver that was
+ * picked for a file and gives it the limits. This class also contains
+ * accessor methods for the options.
+ *
+ * Options:
+ *   -engine NAME   solver to use: bruteforce (default), gray, bitsliced, cdcl,
+ *                  walksat, probsat or portfolio
+ *   -portfolio LIST      engines raced by the portfolio engine, separated
+ *                        by commas (default bruteforce,cdcl,walksat,probsat)
+ *   -threads N     worker threads for the bruteforce engine (default 1)
+ *   -reorder       give the bruteforce engine's counter bits to the variables
+ *                  of short clauses first, so skips over false clauses are
+ *                  larger
+ *   -checkpoint DIR      save the position of the bruteforce engine in DIR
+ *                        and go on from it when the same formula is solved
+ *                        again
+ *   -checkpoint-interval SEC   time between checkpoints (default 60)
+ *   -formula-cache DIR   keep compiled formulas in DIR and load them from
+ *                        there instead of parsing the same file again
+ *   -result-cache N      remember the answers of the last N formulas and
+ *                        answer a formula that comes again without solving it
+ *   -result-cache-dir DIR     also keep the answers in DIR so they last
+ *                             from one run to the next
+ *   -count         count the models of each file instead of finding one
+ *                  (interactive mode)
+ *   -count-cache MB      memory of the component cache of -count
+ *                        (default 64)
+ *   -enumerate     write every model of each file as a v line instead of
+ *                  finding one (interactive mode)
+ *   -project LIST  enumerate only the distinct values of these variables,
+ *                  such as 1,2,5-9
+ *   -limit N       stop the enumeration after N models (default none)
+ *   -models FILE   write the enumerated models to FILE instead of stdout
+ *   -preprocess    simplify the formula before solving it
+ *   -components    split the formula into parts that share no variables and
+ *                  solve the parts at the same time
+ *   -no-fast-path  do not send 2-SAT and (renamable) Horn formulas to their
+ *                  polynomial time solvers
+ *   -batch PATH    solve every CNF file in a directory, or matching a glob
+ *                  such as dir/*.cnf, without prompting
+ *   -serve PORT    keep running and solve formulas sent to PORT on the
+ *                  loopback address (see SolverDaemon)
+ *   -queue N       requests the daemon lets wait for a worker before it
+ *                  answers busy (default 16)
+ *   -workers N     files solved at the same time in batch or daemon mode
+ *                  (default 1)
+ *   -timeout SEC   time limit per file (default none)
+ *   -max-assignments N   most assignments to try per file (default none)
+ *   -max-memory MB       most heap memory to use while solving (default none)
+ *   -progress SEC  print a progress line on stderr every SEC seconds
+ *   -no-jmx        do not publish a SolveMonitor MBean for each file
+ *   -format FMT    batch output format: csv (default) or json
+ *   -noise X       walk probability of walksat (default 0.567) or break
+ *                  exponent of probsat (default 2.06)
+ *   -max-flips N   flips per try of local search (default 1000000)
+ *   -restarts N    tries of local search, each from a new random
+ *                  assignment (default 10)
+ *   -seed N        random seed of local search (default 0)
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class Config {
+    private static final List<String> ENGINES = List.of("bruteforce", "gray", "bitsliced", "cdcl",
+            "walksat", "probsat", "portfolio");
+
+    private String engine;      // Holds name of the solver to use
+    private int threads;        // Holds # of worker threads for the brute force search
+    private boolean reorder;    // Holds if the bruteforce engine orders the variables by score
+    private String checkpoint;  // Holds directory of checkpoint files, null for none
+    private long checkpointInterval;    // Holds seconds between checkpoints
+    private FormulaCache formulaCache;  // Holds compiled formulas of files parsed before, null for none
+    private ResultCache resultCache;    // Holds answers of formulas solved before, null for none
+    private boolean count;      // Holds if the models are counted instead of solving
+    private int countCache;     // Holds megabytes of component counts kept while counting
+    private boolean enumerate;  // Holds if every model is written instead of solving
+    private int[] project;      // Holds variables the models are projected onto, null for all
+    private long limit;         // Holds most models to enumerate, 0 for all
+    private String models;      // Holds file the enumerated models go to, null for stdout
+    private boolean preprocess; // Holds if the formula is simplified before solving
+    private boolean components; // Holds if the formula is split into independent parts
+    private boolean fastPath;   // Holds if 2-SAT and Horn formulas get their own solvers
+    private String batch;       // Holds directory or glob of files for batch mode, null if interactive
+    private int workers;        // Holds # of files solved at once in batch or daemon mode
+    private int serve;          // Holds port of the solver daemon, 0 if not serving
+    private int queue;          // Holds # of daemon requests that may wait for a worker
+    private long timeout;       // Holds time limit per file in seconds, 0 for none
+    private long maxAssignments;    // Holds most assignments to try per file, 0 for none
+    private long maxMemory;     // Holds most heap memory in megabytes, 0 for none
+    private String format;      // Holds output format of batch mode
+    private long progress;      // Holds seconds between progress lines, 0 for none
+    private boolean jmx;        // Holds if every solve is published as an MBean
+    private double noise;       // Holds noise of local search, negative for the engine default
+    private long maxFlips;      // Holds flips per try of local search
+    private int restarts;       // Holds tries of local search
+    private long seed;          // Holds random seed of local search
+    private List<String> portfolio;     // Holds engines raced by the portfolio engine
+
+    /**
+     * Constructor
+     *
+     * Initializes all options to their default values.
+     */
+    public Config()
+    {
+        engine = "bruteforce";
+        threads = 1;
+        reorder = false;
+        checkpoint = null;
+        formulaCache = null;
+        resultCache = null;
+        checkpointInterval = 60;
+        count = false;
+        countCache = ModelCounter.DEFAULT_CACHE_MB;
+        enumerate = false;
+        project = null;
+        limit = 0;
+        models = null;
+        preprocess = false;
+        components = false;
+        fastPath = true;
+        batch = null;
+        workers = 1;
+        serve = 0;
+        queue = 16;
+        timeout = 0;
+        maxAssignments = 0;
+        maxMemory = 0;
+        format = "csv";
+        progress = 0;
+        jmx = true;
+        noise = -1;
+        maxFlips = LocalSearchSolver.DEFAULT_MAX_FLIPS;
+        restarts = LocalSearchSolver.DEFAULT_TRIES;
+        seed = 0;
+        portfolio = List.of("bruteforce", "cdcl", "walksat", "probsat");
+    }
+
+    /**
+     * Reads the command line arguments and sets the options.
+     *
+     * @param args - arguments passed to main()
+     * @return config - Config object holding the options
+     */
+    public static Config parse(String[] args)
+    {
+        Config config = new Config();
+        int resultCacheSize = 0;
+        String resultCacheDir = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-engine":
+                    config.engine = value(args, ++i);
+                    break;
+                case "-threads":
+                    config.threads = intValue(args, ++i);
+                    break;
+                case "-reorder":
+                    config.reorder = true;
+                    break;
+                case "-checkpoint":
+                    config.checkpoint = value(args, ++i);
+                    break;
+                case "-checkpoint-interval":
+                    config.checkpointInterval = intValue(args, ++i);
+                    break;
+                case "-formula-cache":
+                    config.formulaCache = new FormulaCache(Path.of(value(args, ++i)));
+                    break;
+                case "-result-cache":
+                    resultCacheSize = intValue(args, ++i);
+                    break;
+                case "-result-cache-dir":
+                    resultCacheDir = value(args, ++i);
+                    break;
+                case "-count":
+                    config.count = true;
+                    break;
+                case "-count-cache":
+                    config.countCache = intValue(args, ++i);
+                    break;
+                case "-enumerate":
+                    config.enumerate = true;
+                    break;
+                case "-project":
+                    config.project = variables(args, ++i);
+                    break;
+                case "-limit":
+                    config.limit = longValue(args, ++i);
+                    break;
+                case "-models":
+                    config.models = value(args, ++i);
+                    break;
+                case "-preprocess":
+                    config.preprocess = true;
+                    break;
+                case "-components":
+                    config.components = true;
+                    break;
+                case "-progress":
+                    config.progress = intValue(args, ++i);
+                    break;
+                case "-no-jmx":
+                    config.jmx = false;
+                    break;
+                case "-no-fast-path":
+                    config.fastPath = false;
+                    break;
+                case "-batch":
+                    config.batch = value(args, ++i);
+                    break;
+                case "-workers":
+                    config.workers = intValue(args, ++i);
+                    break;
+                case "-serve":
+                    config.serve = intValue(args, ++i);
+                    break;
+                case "-queue":
+                    config.queue = intValue(args, ++i);
+                    break;
+                case "-timeout":
+                    config.timeout = intValue(args, ++i);
+                    break;
+                case "-max-assignments":
+                    config.maxAssignments = longValue(args, ++i);
+                    break;
+                case "-max-memory":
+                    config.maxMemory = longValue(args, ++i);
+                    break;
+                case "-format":
+                    config.format = value(args, ++i);
+                    break;
+                case "-noise":
+                    config.noise = doubleValue(args, ++i);
+                    break;
+                case "-max-flips":
+                    config.maxFlips = longValue(args, ++i);
+                    break;
+                case "-restarts":
+                    config.restarts = intValue(args, ++i);
+                    break;
+                case "-seed":
+                    try {
+                        config.seed = Long.parseLong(value(args, ++i));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Option -seed needs a number");
+                    }
+                    break;
+                case "-portfolio":
+                    config.portfolio = List.of(value(args, ++i).split(","));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (!ENGINES.contains(config.engine)) {
+            throw new IllegalArgumentException("Unknown engine: " + config.engine);
+        }
+        for (String member : config.portfolio) {
+            if (!ENGINES.contains(member) || member.equals("portfolio")) {
+                throw new IllegalArgumentException("Unknown portfolio engine: " + member);
+            }
+        }
+        if (resultCacheSize > 0 || resultCacheDir != null) {
+            config.resultCache = new ResultCache(resultCacheSize > 0 ? resultCacheSize : ResultCache.DEFAULT_SIZE,
+                    resultCacheDir == null ? null : Path.of(resultCacheDir));
+        }
+        if (!config.format.equals("csv") && !config.format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format: " + config.format);
+        }
+        return config;
+    }
+
+    /**
+     * Creates the model counter for a file. The formula is counted as it
+     * is, -preprocess is not used because simplifying it can change the
+     * number of models.
+     *
+     * @param file - FileInfo object holding the formula
+     * @return counter - ModelCounter for the formula, with the limits set
+     */
+    public ModelCounter createCounter(FileInfo file)
+    {
+        ModelCounter counter = new ModelCounter(file.evaluateClauses(), countCache);
+        counter.setLimits(getLimits());
+        return counter;
+    }
+
+    /**
+     * Creates the model enumerator for a file. Its models go to the -models
+     * file or to stdout.
+     *
+     * @param file - FileInfo object holding the formula
+     * @return enumerator - ModelEnumerator for the formula, with the limits set
+     */
+    public ModelEnumerator createEnumerator(FileInfo file)
+    {
+        ModelSink sink = models == null ? new StreamSink(System.out) : StreamSink.toFile(Path.of(models));
+        ModelEnumerator enumerator = new ModelEnumerator(file.evaluateClauses(), project, sink, limit);
+        enumerator.setLimits(getLimits());
+        return enumerator;
+    }
+
+    /**
+     * Creates the solver picked by the engine option for a file. With a
+     * result cache the solver is only made if the formula is not found in
+     * the cache.
+     *
+     * @param file - FileInfo object holding the formula
+     * @return engine - solver for the formula
+     */
+    public SATEngine createEngine(FileInfo file)
+    {
+        ClauseDatabase db = file.evaluateClauses();
+        if (resultCache != null) {
+            return new CachedEngine(resultCache, db, () -> createPipeline(db));
+        }
+        return createPipeline(db);
+    }
+
+    /**
+     * Creates the solver for a whole formula, with the preprocessor and the
+     * split into components in front of it if they were asked for.
+     *
+     * @param formula - ClauseDatabase holding the formula
+     * @return engine - solver for the formula
+     */
+    private SATEngine createPipeline(ClauseDatabase formula)
+    {
+        ClauseDatabase db = formula;
+        Preprocessor pre = null;
+        if (preprocess) {   // Solve the simplified formula and extend its model
+            pre = new Preprocessor(db);
+            db = pre.simplify();
+        }
+        SATEngine solver;
+        if (components) {   // One engine for each independent part
+            solver = new ComponentSolver(db, this::createEngine, Runtime.getRuntime().availableProcessors());
+        } else {
+            solver = createEngine(db);
+        }
+        return pre == null ? solver : new PreprocessedEngine(pre, solver);
+    }
+
+    /**
+     * Creates the solver for a compiled formula and sets its limits. 2-SAT
+     * and (renamable) Horn formulas go to their polynomial time solvers
+     * unless -no-fast-path was given, everything else to the solver picked
+     * by the engine option.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return engine - solver for the formula
+     */
+    public SATEngine createEngine(ClauseDatabase db)
+    {
+        SATEngine solver = null;
+        if (fastPath) {
+            FormulaClassifier classifier = new FormulaClassifier(db);
+            switch (classifier.getFragment()) {
+                case TWO_SAT:
+                    solver = new TwoSatSolver(db);
+                    break;
+                case HORN:
+                    solver = new HornSolver(db);
+                    break;
+                case RENAMABLE_HORN:
+                    solver = new HornSolver(db, classifier.getRenaming());
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (solver == null) {
+            solver = createEngine(db, engine, seed);
+        }
+        solver.setLimits(getLimits());
+        return solver;
+    }
+
+    /**
+     * Creates one solver by name. The portfolio engine gets one solver for
+     * each name in the -portfolio list, and local search solvers in it get
+     * different seeds.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param name - name of the engine
+     * @param randomSeed - seed for local search
+     * @return engine - solver for the formula
+     */
+    private SATEngine createEngine(ClauseDatabase db, String name, long randomSeed)
+    {
+        SATEngine solver;
+        switch (name) {
+            case "gray":
+                solver = new GrayCodeSolver(db);
+                break;
+            case "bitsliced":
+                solver = new BitSlicedSolver(db);
+                break;
+            case "cdcl":
+                solver = new CDCLSolver(db);
+                break;
+            case "walksat":
+            case "probsat":
+                solver = createLocalSearch(db, name.equals("probsat"), randomSeed);
+                break;
+            case "portfolio":
+                ArrayList<SATEngine> members = new ArrayList<>();
+                for (int i = 0; i < portfolio.size(); i++) {
+                    members.add(createEngine(db, portfolio.get(i), randomSeed + i));
+                }
+                solver = new PortfolioSolver(db, members);
+                break;
+            default:
+                if (threads > 1) {
+                    ParallelSolver parallel = new ParallelSolver(db, threads, reorder);
+                    if (checkpoint != null) {
+                        parallel.setCheckpoint(Path.of(checkpoint), checkpointInterval * 1_000_000_000L);
+                    }
+                    solver = parallel;
+                } else {
+                    Solver single = new Solver(db, reorder);
+                    if (checkpoint != null) {
+                        single.setCheckpoint(Path.of(checkpoint), checkpointInterval * 1_000_000_000L);
+                    }
+                    solver = single;
+                }
+        }
+        return solver;
+    }
+
+    /**
+     * Creates the SolveMonitor of a file, registered as an MBean unless
+     * -no-jmx was given and printing progress lines if -progress was.
+     *
+     * @param fileName - file that is about to be solved
+     * @return monitor - SolveMonitor object, to be closed when the file is done
+     */
+    public SolveMonitor createMonitor(String fileName)
+    {
+        SolveMonitor monitor = new SolveMonitor(fileName);
+        if (jmx) {
+            monitor.register();
+        }
+        if (progress > 0) {
+            monitor.startReporting(progress, System.err);
+        }
+        return monitor;
+    }
+
+    /**
+     * Creates a local search engine with the -noise, -max-flips and
+     * -restarts options.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param probSAT - true for ProbSAT, false for WalkSAT
+     * @param randomSeed - seed of the random number generator
+     * @return engine - LocalSearchSolver for the formula
+     */
+    public LocalSearchSolver createLocalSearch(ClauseDatabase db, boolean probSAT, long randomSeed)
+    {
+        LocalSearchSolver local = new LocalSearchSolver(db, probSAT, randomSeed);
+        if (noise >= 0) {
+            local.setNoise(noise);
+        }
+        local.setMaxFlips(maxFlips);
+        local.setMaxTries(restarts);
+        return local;
+    }
+
+    /**
+     * @return limits - SolveLimits made from the -timeout, -max-assignments
+     *         and -max-memory options
+     */
+    public SolveLimits getLimits()
+    {
+        return new SolveLimits(timeout * 1000, maxAssignments, maxMemory * 1024 * 1024);
+    }
+
+    /**
+     * Gets the value that follows an option.
+     *
+     * @param args - arguments passed to main()
+     * @param i - index of the value
+     * @return value - the argument at index i
+     */
+    private static String value(String[] args, int i)
+    {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Gets the positive number that follows an option.
+     *
+     * @param args - arguments passed to main()
+     * @param i - index of the value
+     * @return value - the argument at index i as an int
+     */
+    private static int intValue(String[] args, int i)
+    {
+        int number;
+        try {
+            number = Integer.parseInt(value(args, i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " needs a number");
+        }
+        if (number < 1) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " must be at least 1");
+        }
+        return number;
+    }
+
+    /**
+     * Gets the positive long number that follows an option.
+     *
+     * @param args - arguments passed to main()
+     * @param i - index of the value
+     * @return value - the argument at index i as a long
+     */
+    private static long longValue(String[] args, int i)
+    {
+        long number;
+        try {
+            number = Long.parseLong(value(args, i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " needs a number");
+        }
+        if (number < 1) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " must be at least 1");
+        }
+        return number;
+    }
+
+    /**
+     * Gets the number that follows an option, which may have a fraction.
+     *
+     * @param args - arguments passed to main()
+     * @param i - index of the value
+     * @return value - the argument at index i as a double
+     */
+    private static double doubleValue(String[] args, int i)
+    {
+        double number;
+        try {
+            number = Double.parseDouble(value(args, i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " needs a number");
+        }
+        if (!(number >= 0)) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " must be at least 0");
+        }
+        return number;
+    }
+
+    /**
+     * Gets the list of variables that follows an option, numbers and ranges
+     * separated by commas such as 1,2,5-9. Repeats are dropped and the
+     * order is kept.
+     *
+     * @param args - arguments passed to main()
+     * @param i - index of the value
+     * @return variables - the variables in the list
+     */
+    private static int[] variables(String[] args, int i)
+    {
+        LinkedHashSet<Integer> list = new LinkedHashSet<>();
+        try {
+            for (String part : value(args, i).split(",")) {
+                int dash = part.indexOf('-', 1);
+                int first = Integer.parseInt(dash < 0 ? part : part.substring(0, dash));
+                int last = dash < 0 ? first : Integer.parseInt(part.substring(dash + 1));
+                if (first < 1 || last < first) {
+                    throw new IllegalArgumentException("Option " + args[i - 1] + " has a bad range: " + part);
+                }
+                for (int v = first; v <= last; v++) {
+                    list.add(v);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + args[i - 1] + " needs variable numbers");
+        }
+        int[] vars = new int[list.size()];
+        int k = 0;
+        for (int v : list) {
+            vars[k++] = v;
+        }
+        return vars;
+    }
+
+    /**
+     * @return engine - name of the solver to use
+     */
+    public String getEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * @return threads - number of worker threads
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * @return preprocess - true if the formula is simplified before solving
+     */
+    public boolean isPreprocess()
+    {
+        return preprocess;
+    }
+
+    /**
+     * @return reorder - true if the bruteforce engine orders the variables by score
+     */
+    public boolean isReorder()
+    {
+        return reorder;
+    }
+
+    /**
+     * @return checkpoint - directory of checkpoint files, null for none
+     */
+    public String getCheckpoint()
+    {
+        return checkpoint;
+    }
+
+    /**
+     * @return checkpointInterval - seconds between checkpoints
+     */
+    public long getCheckpointInterval()
+    {
+        return checkpointInterval;
+    }
+
+    /**
+     * @return progress - seconds between progress lines, 0 for none
+     */
+    public long getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * @return jmx - true if every solve is published as an MBean
+     */
+    public boolean isJmx()
+    {
+        return jmx;
+    }
+
+    /**
+     * @return count - true if the models are counted instead of solving
+     */
+    public boolean isCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return countCache - megabytes of component counts kept while counting
+     */
+    public int getCountCache()
+    {
+        return countCache;
+    }
+
+    /**
+     * @return enumerate - true if every model is written instead of solving
+     */
+    public boolean isEnumerate()
+    {
+        return enumerate;
+    }
+
+    /**
+     * @return resultCache - answers of formulas solved before, null if not kept
+     */
+    public ResultCache getResultCache()
+    {
+        return resultCache;
+    }
+
+    /**
+     * @return formulaCache - cache of compiled formulas, null for none
+     */
+    public FormulaCache getFormulaCache()
+    {
+        return formulaCache;
+    }
+
+    /**
+     * @return components - true if the formula is split into independent parts
+     */
+    public boolean isComponents()
+    {
+        return components;
+    }
+
+    /**
+     * @return fastPath - true if 2-SAT and Horn formulas get their own solvers
+     */
+    public boolean isFastPath()
+    {
+        return fastPath;
+    }
+
+    /**
+     * @return batch - directory or glob of files for batch mode, null if interactive
+     */
+    public String getBatch()
+    {
+        return batch;
+    }
+
+    /**
+     * @return workers - number of files solved at once in batch or daemon mode
+     */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * @return serve - port of the solver daemon, 0 if not serving
+     */
+    public int getServe()
+    {
+        return serve;
+    }
+
+    /**
+     * @return queue - number of daemon requests that may wait for a worker
+     */
+    public int getQueue()
+    {
+        return queue;
+    }
+
+    /**
+     * @return timeout - time limit per file in seconds, 0 for none
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * @return format - output format of batch mode, csv or json
+     */
+    public String getFormat()
+    {
+        return format;
+    }
+}
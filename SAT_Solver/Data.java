@@ -1,5 +1,7 @@
 package bruteforce;
 
+import java.util.LinkedHashMap;
+
 /**
  * DAA - Data class
  *
@@ -7,6 +9,10 @@ package bruteforce;
  * the files to be tested. This class is used by Main class to create an
  * ArrayList of Data objects after a file is tested. This class contains a
  * constructor that initializes the instance variables and accessor methods.
+ * The time of each phase (read, parse, compile, solve) in nanoseconds and
+ * the search counters of the engine are set after the file is solved. For
+ * the portfolio engine the engine that won and the time each engine ran are
+ * kept too.
  *
  * @author Anwara Era
  * @version 2-27-23
@@ -16,6 +22,22 @@ public class Data {
     private String fileName;
     private long timeTaken;
     private boolean satisfiable;
+    private int workers;
+    private Result result;              // SAT, UNSAT or UNKNOWN
+    private double progress;            // Part of the search space covered, 0 to 1
+    private long readTime;              // Phase times in nanoseconds
+    private long parseTime;
+    private long compileTime;
+    private long solveTime;
+    private long assignments;           // Search counters of the engine
+    private long clauseEvaluations;
+    private long literalsInspected;
+    private long skipped;               // Assignments jumped over without trying them
+    private long peakHeap;              // Most heap memory used while the file was solved, in bytes
+    private long offHeap;               // Memory of direct and mapped buffers, in bytes
+    private String path;                // Engine that solved the formula, such as 2sat or cdcl
+    private String winner;              // Portfolio engine that answered first, null if none
+    private LinkedHashMap<String, Long> engineTimes;    // Time each portfolio engine ran in nanoseconds
 
     /**
      * Constructor
@@ -27,10 +49,103 @@ public class Data {
      * @param sat - holds if a file formula is satisfiable or not
      */
     public Data(String file, long time, boolean sat)
+    {
+        this(file, time, sat, 1);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param file - holds file name
+     * @param time - holds the time it takes to test a file
+     * @param sat - holds if a file formula is satisfiable or not
+     * @param threads - holds the number of worker threads used
+     */
+    public Data(String file, long time, boolean sat, int threads)
     {
         fileName = file;
         timeTaken = time;
         satisfiable = sat;
+        workers = threads;
+        result = sat ? Result.SAT : Result.UNSAT;
+        progress = 1;
+        path = "";
+        winner = null;
+        engineTimes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sets the time taken by each phase.
+     *
+     * @param read - time to open and read the file in nanoseconds
+     * @param parse - time to tokenize the clauses in nanoseconds
+     * @param compile - time to build the clause arrays and the engine in nanoseconds
+     * @param solve - time taken by solve() in nanoseconds
+     */
+    public void setPhaseTimes(long read, long parse, long compile, long solve)
+    {
+        readTime = read;
+        parseTime = parse;
+        compileTime = compile;
+        solveTime = solve;
+    }
+
+    /**
+     * Sets the outcome of the solve, which may be UNKNOWN if it was stopped.
+     *
+     * @param r - result of the engine
+     * @param covered - part of the search space covered, 0 to 1
+     */
+    public void setResult(Result r, double covered)
+    {
+        result = r;
+        satisfiable = r == Result.SAT;
+        progress = covered;
+    }
+
+    /**
+     * Copies the search counters of an engine.
+     *
+     * @param stats - SolverStats object of the engine
+     */
+    public void setStats(SolverStats stats)
+    {
+        assignments = stats.getAssignments();
+        clauseEvaluations = stats.getClauseEvaluations();
+        literalsInspected = stats.getLiteralsInspected();
+        skipped = stats.getSkipped();
+    }
+
+    /**
+     * @param peak - most heap memory used while the file was solved, in bytes
+     * @param direct - memory of direct and mapped buffers, in bytes
+     */
+    public void setMemory(long peak, long direct)
+    {
+        peakHeap = peak;
+        offHeap = direct;
+    }
+
+    /**
+     * @param name - engine that solved the formula, which shows the fast path taken
+     */
+    public void setPath(String name)
+    {
+        path = name;
+    }
+
+    /**
+     * Sets the results of a portfolio race.
+     *
+     * @param name - engine that answered first, null if none did
+     * @param times - name of each engine and the time it ran in nanoseconds
+     */
+    public void setPortfolio(String name, LinkedHashMap<String, Long> times)
+    {
+        winner = name;
+        engineTimes = times;
     }
 
     /**
@@ -56,4 +171,140 @@ public class Data {
     {
         return satisfiable;
     }
+
+    /**
+     * @return result - holds SAT, UNSAT or UNKNOWN
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return progress - holds the part of the search space covered, 0 to 1
+     */
+    public double getProgress()
+    {
+        return progress;
+    }
+
+    /**
+     * @return workers - holds the number of worker threads used
+     */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * @return readTime - holds the time taken to read the file in nanoseconds
+     */
+    public long getReadTime()
+    {
+        return readTime;
+    }
+
+    /**
+     * @return parseTime - holds the time taken to parse the file in nanoseconds
+     */
+    public long getParseTime()
+    {
+        return parseTime;
+    }
+
+    /**
+     * @return compileTime - holds the time taken to compile the formula in nanoseconds
+     */
+    public long getCompileTime()
+    {
+        return compileTime;
+    }
+
+    /**
+     * @return solveTime - holds the time taken to solve the formula in nanoseconds
+     */
+    public long getSolveTime()
+    {
+        return solveTime;
+    }
+
+    /**
+     * @return assignments - holds the number of assignments tried
+     */
+    public long getAssignments()
+    {
+        return assignments;
+    }
+
+    /**
+     * @return clauseEvaluations - holds the number of clause evaluations
+     */
+    public long getClauseEvaluations()
+    {
+        return clauseEvaluations;
+    }
+
+    /**
+     * @return literalsInspected - holds the number of literals inspected
+     */
+    public long getLiteralsInspected()
+    {
+        return literalsInspected;
+    }
+
+    /**
+     * @return peakHeap - holds the most heap memory used while the file was solved, in bytes
+     */
+    public long getPeakHeap()
+    {
+        return peakHeap;
+    }
+
+    /**
+     * @return offHeap - holds the memory of direct and mapped buffers, in bytes
+     */
+    public long getOffHeap()
+    {
+        return offHeap;
+    }
+
+    /**
+     * @return skipped - holds the number of assignments skipped without trying them
+     */
+    public long getSkipped()
+    {
+        return skipped;
+    }
+
+    /**
+     * @return path - holds the engine that solved the formula
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return winner - holds the portfolio engine that answered first, null if none
+     */
+    public String getWinner()
+    {
+        return winner;
+    }
+
+    /**
+     * @return engineTimes - holds the time each portfolio engine ran in nanoseconds
+     */
+    public LinkedHashMap<String, Long> getEngineTimes()
+    {
+        return engineTimes;
+    }
+
+    /**
+     * @return assignments tried per second of solve time
+     */
+    public double getAssignmentRate()
+    {
+        return solveTime == 0 ? 0 : assignments / (solveTime / 1e9);
+    }
 }
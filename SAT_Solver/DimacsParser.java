@@ -0,0 +1,318 @@
+package bruteforce;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * DAA - DimacsParser class
+ *
+ * Purpose: This class reads a CNF file in DIMACS format byte by byte and
+ * puts the numbers straight into a ClauseArena outside the heap, without
+ * making any strings for the clauses. Plain files are memory-mapped with a
+ * FileChannel, files ending in .gz are read through a GZIPInputStream. A
+ * clause ends at a 0, so the line layout and the amount of whitespace do
+ * not matter and input like "0-3" is read as the end of a clause followed
+ * by -3. A minus sign must be followed right away by a digit. Comment lines
+ * can appear anywhere, and a line starting with % ends the formula like in
+ * the SATLIB benchmark files. The parser also keeps track of how many bytes
+ * it read and how long it took.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class DimacsParser {
+    private static final int MAP_CHUNK = 1 << 30;   // Largest part of a file mapped at once
+    private static final int READ_CHUNK = 1 << 16;  // Buffer size for compressed input
+    private static final int MAX_RESERVE = 1 << 24; // Most clauses room is made for from the header
+
+    private int numVariables;       // Holds # of variables from the header
+    private int numClauses;         // Holds # of clauses from the header
+    private ClauseArena arena;      // Holds the literals and clause ends off the heap
+    private int clauseStart;        // Start of the clause being read
+    private int maxVariable;        // Largest variable seen in a clause
+
+    private boolean inComment;      // Skipping until the end of the line
+    private boolean atLineStart;
+    private boolean finished;       // Found the % end marker
+    private StringBuilder header;   // Text of the p line while it is read, null otherwise
+    private boolean inNumber;
+    private boolean negative;
+    private long number;
+
+    private long bytesRead;
+    private long parseNanos;
+    private long readNanos;             // Part of parseNanos spent opening, mapping and reading
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables.
+     */
+    public DimacsParser()
+    {
+        arena = new ClauseArena(256, 1024);
+        atLineStart = true;
+    }
+
+    /**
+     * Parses a file, memory-mapping it unless it is gzip compressed.
+     *
+     * @param fileName - name of the CNF file
+     * @throws IOException if the file cannot be read or is not valid DIMACS
+     */
+    public void parse(String fileName) throws IOException
+    {
+        long start = System.nanoTime();
+        if (fileName.endsWith(".gz")) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(fileName), READ_CHUNK)) {
+                parse(in);
+            }
+        } else {
+            try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+                long size = channel.size();
+                readNanos += System.nanoTime() - start;
+                for (long position = 0; position < size && !finished; position += MAP_CHUNK) {
+                    long mapStart = System.nanoTime();
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                            position, Math.min(MAP_CHUNK, size - position));
+                    readNanos += System.nanoTime() - mapStart;
+                    process(buffer);
+                }
+            }
+            finish();
+        }
+        parseNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Parses everything that can be read from a stream.
+     *
+     * @param in - stream holding DIMACS text
+     * @throws IOException if the stream cannot be read or is not valid DIMACS
+     */
+    public void parse(InputStream in) throws IOException
+    {
+        long start = System.nanoTime();
+        byte[] chunk = new byte[READ_CHUNK];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        int n;
+        while (!finished) {
+            long readStart = System.nanoTime();
+            n = in.read(chunk);
+            readNanos += System.nanoTime() - readStart;
+            if (n == -1) {
+                break;
+            }
+            buffer.clear().limit(n);
+            process(buffer);
+        }
+        finish();
+        parseNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the tokenizer over the bytes between the buffer's position and
+     * limit. The state is kept in instance variables so a number or line can
+     * continue into the next buffer.
+     *
+     * @param buffer - bytes to read
+     * @throws IOException if the text is not valid DIMACS
+     */
+    private void process(ByteBuffer buffer) throws IOException
+    {
+        int limit = buffer.limit();
+        bytesRead += limit - buffer.position();
+        for (int i = buffer.position(); i < limit && !finished; i++) {
+            byte b = buffer.get(i);
+
+            if (inComment) {
+                if (b == '\n') {
+                    inComment = false;
+                    atLineStart = true;
+                }
+                continue;
+            }
+            if (header != null) {
+                if (b == '\n') {
+                    readHeader(header.toString());
+                    header = null;
+                    atLineStart = true;
+                } else {
+                    header.append((char) b);
+                }
+                continue;
+            }
+
+            if (b >= '0' && b <= '9') {
+                number = number * 10 + (b - '0');
+                if (number > Integer.MAX_VALUE) {
+                    throw new IOException("Literal is too large at byte " + (bytesRead - limit + i));
+                }
+                inNumber = true;
+                atLineStart = false;
+                continue;
+            }
+            if (inNumber) {     // Any other byte ends the number
+                endNumber();
+            }
+            if (negative) {     // Only a digit may follow a minus sign
+                throw new IOException("'-' not followed by a digit at byte " + (bytesRead - limit + i - 1));
+            }
+
+            if (b == '-') {
+                negative = true;
+            } else if (b == '\n') {
+                atLineStart = true;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                continue;
+            } else if (b == 'c') {
+                inComment = true;
+            } else if (b == 'p' && atLineStart) {
+                header = new StringBuilder("p");
+            } else if (b == '%' && atLineStart) {
+                finished = true;
+            } else {
+                throw new IOException("Unexpected character '" + (char) b + "' at byte "
+                        + (bytesRead - limit + i));
+            }
+            atLineStart = atLineStart && b == '\n';
+        }
+    }
+
+    /**
+     * Adds the number that was just read as a literal, or ends the clause
+     * if it was a 0.
+     */
+    private void endNumber()
+    {
+        int value = (int) number;
+        if (value == 0) {
+            arena.endClause();
+            clauseStart = arena.getLiteralCount();
+        } else {
+            arena.addLiteral(negative ? -value : value);
+            maxVariable = Math.max(maxVariable, value);
+        }
+        number = 0;
+        negative = false;
+        inNumber = false;
+    }
+
+    /**
+     * Reads the number of variables and clauses from the p line.
+     *
+     * @param line - the header line
+     * @throws IOException if the line is not "p cnf variables clauses"
+     */
+    private void readHeader(String line) throws IOException
+    {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            if (parts.length != 4 || !parts[1].equals("cnf")) {
+                throw new NumberFormatException();
+            }
+            numVariables = Integer.parseInt(parts[2]);
+            numClauses = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad header line: " + line.trim());
+        }
+        arena.reserve(Math.min(Math.max(numClauses, 0), MAX_RESERVE));   // A header can be wrong, so only up to a point
+    }
+
+    /**
+     * Ends any number or clause left open at the end of the input.
+     *
+     * @throws IOException if the header line is not finished or the input
+     *         ends with a minus sign
+     */
+    private void finish() throws IOException
+    {
+        if (header != null) {
+            readHeader(header.toString());
+            header = null;
+        }
+        if (inNumber) {
+            endNumber();
+        }
+        if (negative) {
+            throw new IOException("'-' not followed by a digit at byte " + (bytesRead - 1));
+        }
+        if (arena.getLiteralCount() > clauseStart) {    // Last clause was missing its 0
+            negative = false;
+            number = 0;
+            endNumber();
+        }
+    }
+
+    /**
+     * Hands the parsed clauses to a ClauseDatabase, which keeps them in the
+     * arena. The number of variables is the larger of the header value and
+     * the largest variable used.
+     *
+     * @return database - all clauses of the formula
+     */
+    public ClauseDatabase toDatabase()
+    {
+        return new ClauseDatabase(getNumVariables(), arena);
+    }
+
+    /**
+     * @return numVariables - number of variables in the formula
+     */
+    public int getNumVariables()
+    {
+        return Math.max(numVariables, maxVariable);
+    }
+
+    /**
+     * @return numClauses - number of clauses given in the header
+     */
+    public int getNumClauses()
+    {
+        return numClauses;
+    }
+
+    /**
+     * @return clauseCount - number of clauses that were read
+     */
+    public int getClauseCount()
+    {
+        return arena.getClauseCount();
+    }
+
+    /**
+     * @return bytesRead - number of bytes of DIMACS text read
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    /**
+     * Time spent opening and mapping the file or reading the stream. Pages
+     * of a mapped file are loaded while the tokenizer touches them, so for
+     * mapped files most of the disk time still shows up as parse time.
+     *
+     * @return readNanos - part of the last parse spent reading in nanoseconds
+     */
+    public long getReadNanos()
+    {
+        return readNanos;
+    }
+
+    /**
+     * @return parseNanos - time taken by the last parse in nanoseconds
+     */
+    public long getParseNanos()
+    {
+        return parseNanos;
+    }
+}
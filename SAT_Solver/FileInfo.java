@@ -1,8 +1,9 @@
 package bruteforce;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -11,22 +12,31 @@ import java.util.Scanner;
  * Purpose: This class contains instance variables used to read in a file
  * and store its contents. The constructor initializes all the instance
  * variables. The readFile() method contains a loop to read in the file name
- * and check if the file exists. The setValues() method reads the file and
- * sets some of the instance variable values. The evaluateClauses() method
- * adds all the separated clauses to a list. This class also contains
- * accessor methods for instance variables.
+ * and check if the file exists. The setValues() method reads the file with a
+ * DimacsParser and sets some of the instance variable values. The
+ * evaluateClauses() method hands the parsed clauses to a ClauseDatabase
+ * that keeps them off the heap in the parser's ClauseArena, where the
+ * solvers read them. With a FormulaCache set, setValues() loads the compiled
+ * formula from the cache when it has an up to date copy and skips the
+ * parser, and evaluateClauses() saves a newly parsed formula to it. This
+ * class also contains accessor methods for instance variables.
  *
  * @author Anwara Era
  * @version 2-27-23
  */
 
 public class FileInfo {
-    private Scanner satFile;                // Scanner object used to read file
     private String fileName;                // Holds name of file
     private int numVariables;               // Holds # of variables in formula
     private int numClauses;                 // Holds # of clauses in formula
-    private ArrayList<String> clauses;      // Holds each individual clause in string format
-    private ArrayList<String[]> clauseList; // Holds each clause stored as a string array in a list
+    private DimacsParser parser;            // Holds the parsed clauses until they are compiled
+    private ClauseDatabase database;        // Holds the clauses in a ClauseArena
+    private long bytesRead;                 // Holds # of bytes parsed from the file
+    private long parseTime;                 // Holds time taken to parse the file in nanoseconds
+    private long readTime;                  // Holds part of parseTime spent reading the file
+    private long compileTime;               // Holds time taken to build the ClauseDatabase
+    private FormulaCache cache;             // Holds compiled formulas of files parsed before, null for none
+    private boolean fromCache;              // Holds if the formula was loaded from the cache
 
     /**
      * Constructor
@@ -35,11 +45,25 @@ public class FileInfo {
      */
     public FileInfo()
     {
-        satFile = null;
+        fileName = "";
         numVariables = 0;
         numClauses = 0;
-        clauses = new ArrayList<>();
-        clauseList = new ArrayList<>();
+        parser = new DimacsParser();
+        database = null;
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables for a file that is already known,
+     * so readFile() does not have to ask for it.
+     *
+     * @param name - name of the file
+     */
+    public FileInfo(String name)
+    {
+        this();
+        fileName = name;
     }
 
     /**
@@ -52,65 +76,100 @@ public class FileInfo {
             System.out.println("Enter the file name to find SAT: ");
             fileName = in.nextLine();
 
-            try {
-                satFile = new Scanner(new File(fileName));
-            } catch (FileNotFoundException e) {
+            if (!new File(fileName).isFile()) {
                 System.out.println("Error: File does not exist.");
                 System.out.println("Re-enter the file below.");
                 fileName = "";
             }
-        } while(fileName == "");
+        } while(fileName.isEmpty());
     }
 
     /**
-     * Loops through lines of the file, sets numVariables, numClauses,
-     * and fills ArrayList with each clause.
+     * @param c - cache to load the compiled formula from and save it to
      */
-    public void setValues()
+    public void setCache(FormulaCache c)
     {
-        // Loop through all the comment lines in the beginning until
-        // it get to the first data line. Assign the numVariables and
-        // numClauses from the first data line.
-        while (satFile.hasNext()) {
-            String line = satFile.nextLine();
-
-            if(line.startsWith("p")) {
-                String[] splitstr = line.split(" ");    // Get rid of spaces
+        cache = c;
+    }
 
-                // Store values in variables
-                numVariables = Integer.parseInt(splitstr[2]);
-                numClauses = Integer.parseInt(splitstr[3]);
-                break;  // Leave loop once first data line is found
+    /**
+     * Parses the file, sets numVariables, numClauses, and keeps the
+     * clauses in the parser's ClauseArena. If the cache has the compiled
+     * formula, it is loaded instead and the file is not parsed.
+     */
+    public void setValues()
+    {
+        if (cache != null) {
+            long start = System.nanoTime();
+            database = cache.load(Path.of(fileName));
+            if (database != null) {
+                fromCache = true;
+                parser = null;
+                numVariables = database.getNumVariables();
+                numClauses = database.getNumClauses();
+                bytesRead = 4L * (database.getLiteralCount() + database.getNumClauses() + 1);
+                parseTime = System.nanoTime() - start;
+                readTime = parseTime;   // Mapping is all reading
+                return;
             }
         }
+        try {
+            parser.parse(fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + fileName + ": " + e.getMessage(), e);
+        }
+        copyParserValues();
+    }
 
-        satFile.useDelimiter(" 0");     // Set delimiter to ' 0'
-        //Add each clause to the arraylist of clauses
-        for(int i = 0; i < numClauses; i++)
-        {
-            String line = satFile.next();
-            if (!line.startsWith("c"))  // Ignore any possible comment lines in file
-            {
-                clauses.add(line);
-            }
+    /**
+     * Parses DIMACS text from a stream instead of the file, such as a
+     * formula sent to the SolverDaemon, and sets the same values as
+     * setValues(). The stream is read up to a line starting with % or its
+     * end.
+     *
+     * @param in - stream holding DIMACS text
+     */
+    public void setValues(InputStream in)
+    {
+        try {
+            parser.parse(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + fileName + ": " + e.getMessage(), e);
         }
+        copyParserValues();
     }
 
     /**
-     * Creates string array that separates each number in the clause.
-     * Adds each string array to a list.
+     * Sets numVariables, numClauses and the parse counters from the parser.
+     */
+    private void copyParserValues()
+    {
+        numVariables = parser.getNumVariables();
+        numClauses = parser.getClauseCount();
+        bytesRead = parser.getBytesRead();
+        parseTime = parser.getParseNanos();
+        readTime = parser.getReadNanos();
+    }
+
+    /**
+     * Hands the parsed clauses to a ClauseDatabase, which keeps them off the
+     * heap in the parser's ClauseArena. This is only done the first time,
+     * later calls return the same database.
      *
-     * @return clauseList - list containing string arrays that hold each number in each clause
+     * @return database - all clauses of the formula in a ClauseArena
      */
-    public ArrayList<String[]> evaluateClauses()
+    public ClauseDatabase evaluateClauses()
     {
-        for(int i = 0; i < numClauses; i++)
-        {
-            // Replace all newlines with nothing and split the string off of the spaces
-            String clause[] = clauses.get(i).replaceAll("\n", "").split(" ");
-            clauseList.add(clause);     // Add the string array to the list
+        if (database == null) {
+            long start = System.nanoTime();
+            database = parser.toDatabase();
+            compileTime = System.nanoTime() - start;
+            parser = null;  // The parser's buffers are not needed anymore
+            if (cache != null) {
+                cache.save(Path.of(fileName), database);
+            }
         }
-        return clauseList;
+        return database;
     }
 
     /**
@@ -121,6 +180,14 @@ public class FileInfo {
         return fileName;
     }
 
+    /**
+     * @return fromCache - true if the formula was loaded from the cache instead of parsed
+     */
+    public boolean isFromCache()
+    {
+        return fromCache;
+    }
+
     /**
      * @return numVariables - holds number of variables in formula
      */
@@ -136,4 +203,44 @@ public class FileInfo {
     {
         return numClauses;
     }
+
+    /**
+     * @return bytesRead - number of bytes parsed from the file
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    /**
+     * @return parseTime - time taken to parse the file in nanoseconds
+     */
+    public long getParseTime()
+    {
+        return parseTime;
+    }
+
+    /**
+     * @return readTime - part of parseTime spent reading the file in nanoseconds
+     */
+    public long getReadTime()
+    {
+        return readTime;
+    }
+
+    /**
+     * @return compileTime - time taken to build the ClauseDatabase in nanoseconds
+     */
+    public long getCompileTime()
+    {
+        return compileTime;
+    }
+
+    /**
+     * @return parse throughput in megabytes per second
+     */
+    public double getParseThroughput()
+    {
+        return parseTime == 0 ? 0 : (bytesRead / 1e6) / (parseTime / 1e9);
+    }
 }
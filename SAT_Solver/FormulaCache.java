@@ -0,0 +1,239 @@
+package bruteforce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DAA - FormulaCache class
+ *
+ * Purpose: This class keeps compiled formulas in a directory so a CNF file
+ * that is solved again does not have to be parsed again. After the first
+ * parse the ClauseDatabase is written to a binary file: a header, the number
+ * of variables, clauses and literals, the literal array and the offset
+ * array, all little-endian ints. Later loads memory-map the file and lay a
+ * ClauseArena over the mapping, so the formula is read in place from the
+ * page cache and the clauses themselves use no heap.
+ *
+ * The header also holds the size, modification time and a content hash of
+ * the source file. If the size or time changed, the source is hashed again:
+ * a different hash means the cache file is stale and the source is parsed
+ * again, the same hash (the file was only touched or copied) means the cache
+ * file is still good and its stamp is brought up to date.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class FormulaCache {
+    private static final int MAGIC = 0x42464346;    // "BFCF"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 44;     // Everything before the literals
+    private static final int STAMP_POSITION = 8;    // Where size, time and hash start
+    private static final int WRITE_CHUNK = 1 << 16; // Bytes written at a time
+
+    private Path dir;           // Directory of cache files
+
+    /**
+     * Constructor
+     *
+     * Initializes the cache directory.
+     *
+     * @param dir - directory of cache files, made when the first file is saved
+     */
+    public FormulaCache(Path dir)
+    {
+        this.dir = dir;
+    }
+
+    /**
+     * @param source - CNF file
+     * @return path - cache file of the source, named after it and a hash of its full path
+     */
+    public Path cacheFile(Path source)
+    {
+        String full = source.toAbsolutePath().normalize().toString();
+        return dir.resolve(String.format("%s-%016x.bfc", source.getFileName(), hash(full.getBytes())));
+    }
+
+    /**
+     * Loads the compiled formula of a source file if the cache has an up to
+     * date copy of it.
+     *
+     * @param source - CNF file
+     * @return database - the cached formula, or null if it has to be parsed
+     */
+    public ClauseDatabase load(Path source)
+    {
+        Path file = cacheFile(source);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION) {
+                return null;
+            }
+            long size = map.getLong();
+            long time = map.getLong();
+            long contentHash = map.getLong();
+            long sourceSize = Files.size(source);
+            long sourceTime = Files.getLastModifiedTime(source).toMillis();
+            if (size != sourceSize || time != sourceTime) {
+                if (hashFile(source) != contentHash) {
+                    return null;    // The source changed, parse it again
+                }
+                restamp(file, sourceSize, sourceTime);  // Same content, only the stamp is old
+            }
+            int variables = map.getInt();
+            int clauses = map.getInt();
+            int literalCount = map.getInt();
+            if (variables < 0 || clauses < 0 || literalCount < 0
+                    || map.remaining() != 4L * literalCount + 4L * (clauses + 1)) {
+                return null;    // Cut short, parse it again
+            }
+            IntBuffer ints = map.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            IntBuffer literals = ints.duplicate().limit(literalCount).slice();
+            IntBuffer offsets = ints.duplicate().position(literalCount).slice();
+            return new ClauseDatabase(variables, new ClauseArena(literals, offsets));
+        } catch (IOException e) {
+            return null;    // An unreadable cache file is only a slower start
+        }
+    }
+
+    /**
+     * Writes a new source size and time into the header of a cache file.
+     *
+     * @param file - cache file
+     * @param size - size of the source file
+     * @param time - modification time of the source file in milliseconds
+     * @throws IOException if the cache file cannot be written
+     */
+    private static void restamp(Path file, long size, long time) throws IOException
+    {
+        ByteBuffer stamp = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        stamp.putLong(size).putLong(time).flip();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (stamp.hasRemaining()) {
+                out.write(stamp, STAMP_POSITION + stamp.position());
+            }
+        }
+    }
+
+    /**
+     * Writes the compiled formula of a source file to a temporary file,
+     * forces it to disk and renames it over the old cache file.
+     *
+     * @param source - CNF file the formula was parsed from
+     * @param db - ClauseDatabase holding the formula
+     */
+    public void save(Path source, ClauseDatabase db)
+    {
+        IntBuffer literals = db.literalBuffer();
+        IntBuffer offsets = db.offsetBuffer();
+        if (HEADER_BYTES + 4L * literals.limit() + 4L * offsets.limit() > Integer.MAX_VALUE) {
+            return;     // Too large to map in one piece, so it is not cached
+        }
+        Path file = cacheFile(source);
+        try {
+            Files.createDirectories(dir);
+            long size = Files.size(source);
+            long time = Files.getLastModifiedTime(source).toMillis();
+            long contentHash = hashFile(source);
+            Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(size).putLong(time).putLong(contentHash)
+                        .putInt(db.getNumVariables()).putInt(db.getNumClauses()).putInt(literals.limit());
+                writeInts(out, buffer, literals);
+                writeInts(out, buffer, offsets);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save " + file, e);
+        }
+    }
+
+    /**
+     * Puts ints into the buffer and writes the buffer out whenever it is full.
+     *
+     * @param out - channel to write to
+     * @param buffer - buffer in write mode, left holding the last part
+     * @param values - ints to write, from position 0 to the limit
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeInts(FileChannel out, ByteBuffer buffer, IntBuffer values) throws IOException
+    {
+        int done = 0;
+        while (done < values.limit()) {
+            if (buffer.remaining() < 4) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            int count = Math.min(buffer.remaining() / 4, values.limit() - done);
+            buffer.asIntBuffer().put(values.duplicate().position(done).limit(done + count));
+            buffer.position(buffer.position() + 4 * count);
+            done += count;
+        }
+    }
+
+    /**
+     * Hashes the bytes of a file with 64 bit FNV-1a, eight bytes at a step.
+     *
+     * @param source - file to hash
+     * @return hash - content hash of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static long hashFile(Path source) throws IOException
+    {
+        long h = 0xcbf29ce484222325L;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position, Math.min(Integer.MAX_VALUE, size - position));
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                while (map.remaining() >= 8) {
+                    h = (h ^ map.getLong()) * 0x100000001b3L;
+                }
+                while (map.hasRemaining()) {
+                    h = (h ^ map.get()) * 0x100000001b3L;
+                }
+            }
+        }
+        return h;
+    }
+
+    /**
+     * @param bytes - bytes to hash
+     * @return hash - 64 bit FNV-1a hash of the bytes
+     */
+    private static long hash(byte[] bytes)
+    {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h = (h ^ b) * 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,118 @@
+package bruteforce;
+
+/**
+ * DAA - FormulaClassifier class
+ *
+ * Purpose: This class looks at the clauses of a formula and finds out if it
+ * is in a fragment that can be solved in polynomial time, so Config can send
+ * it to TwoSatSolver or HornSolver instead of an exponential search. The
+ * checks are tried in this order: 2-SAT, Horn, renamable Horn.
+ *
+ * A formula is renamable Horn if there is a set of variables to negate that
+ * leaves at most one positive literal in every clause. For every pair of
+ * literals in a clause at least one of them has to end up negative, which is
+ * a 2-SAT formula over "negate variable v" variables, so it is solved with
+ * TwoSatSolver. The number of pairs grows with the square of the clause
+ * length, so formulas with too many pairs are left as GENERAL.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class FormulaClassifier {
+    private static final long MAX_RENAMING_PAIRS = 4000000;    // Most literal pairs checked for renaming
+
+    private Fragment fragment;      // Holds the fragment of the formula
+    private boolean[] renaming;     // Holds the variables to negate for RENAMABLE_HORN, index 0 unused
+
+    /**
+     * Constructor
+     *
+     * Classifies the formula.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public FormulaClassifier(ClauseDatabase db)
+    {
+        ClauseView clause = db.view();     // Leaves an arena's clauses off the heap
+        boolean twoSat = true;
+        boolean horn = true;
+        long pairs = 0;
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            int length = clause.moveTo(c).size();
+            int positive = 0;
+            for (int k = 0; k < length; k++) {
+                if (clause.get(k) > 0) {
+                    positive++;
+                }
+            }
+            twoSat &= length <= 2;
+            horn &= positive <= 1;
+            pairs += (long) length * (length - 1) / 2;
+        }
+
+        if (twoSat) {
+            fragment = Fragment.TWO_SAT;
+        } else if (horn) {
+            fragment = Fragment.HORN;
+        } else if (pairs <= MAX_RENAMING_PAIRS && findRenaming(db, (int) pairs)) {
+            fragment = Fragment.RENAMABLE_HORN;
+        } else {
+            fragment = Fragment.GENERAL;
+        }
+    }
+
+    /**
+     * Looks for variables to negate that make the formula Horn. Variable v
+     * of the 2-SAT formula is true when variable v is negated, so literal v
+     * ends up positive when v is false and literal -v when v is true. For
+     * every pair of literals a and b in a clause the clause (not pos(a) or
+     * not pos(b)) is added.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param pairs - number of literal pairs in all clauses
+     * @return true if a renaming was found and saved in renaming
+     */
+    private boolean findRenaming(ClauseDatabase db, int pairs)
+    {
+        ClauseView clause = db.view();
+        int[] constraint = new int[2 * pairs];
+        int[] starts = new int[pairs + 1];
+        int size = 0;
+        int count = 0;
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            clause.moveTo(c);
+            for (int i = 0; i < clause.size(); i++) {
+                for (int j = i + 1; j < clause.size(); j++) {
+                    // not pos(v) is "v is negated" and not pos(-v) is "v is not negated",
+                    // so the clause over the negate variables has the same literals
+                    constraint[size++] = clause.get(i);
+                    constraint[size++] = clause.get(j);
+                    starts[++count] = size;
+                }
+            }
+        }
+        TwoSatSolver twoSat = new TwoSatSolver(new ClauseDatabase(db.getNumVariables(), constraint, starts));
+        if (!twoSat.solve()) {
+            return false;
+        }
+        renaming = twoSat.getModel();
+        return true;
+    }
+
+    /**
+     * @return fragment - holds the fragment of the formula
+     */
+    public Fragment getFragment()
+    {
+        return fragment;
+    }
+
+    /**
+     * @return renaming - holds the variables to negate, only set for RENAMABLE_HORN
+     */
+    public boolean[] getRenaming()
+    {
+        return renaming;
+    }
+}
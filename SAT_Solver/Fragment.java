@@ -0,0 +1,22 @@
+package bruteforce;
+
+/**
+ * DAA - Fragment enum
+ *
+ * Purpose: This enum names the kinds of formulas that FormulaClassifier can
+ * tell apart. TWO_SAT formulas have no clause with more than 2 literals,
+ * HORN formulas have no clause with more than one positive literal and
+ * RENAMABLE_HORN formulas become Horn when some variables are negated
+ * everywhere. All three can be solved in polynomial time, everything else is
+ * GENERAL and goes to the engine picked on the command line.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public enum Fragment {
+    TWO_SAT,
+    HORN,
+    RENAMABLE_HORN,
+    GENERAL
+}
@@ -0,0 +1,247 @@
+package bruteforce;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - GrayCodeSolver class
+ *
+ * Purpose: This class is a brute force solver that goes through the
+ * assignments in Gray code order, so going to the next assignment flips
+ * exactly one variable. It keeps the number of true literals in every clause
+ * and the number of clauses that have none. When a variable is flipped, only
+ * the clauses in that variable's occurrence lists are updated, so each step
+ * costs as much as the number of times the variable appears instead of the
+ * size of the whole formula. The formula is satisfied when no clause is left
+ * with zero true literals.
+ *
+ * Step k of the enumeration flips the bit of the lowest set bit of k. Bit 0
+ * is the last variable and the highest bit is variable 1, like in Solver.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class GrayCodeSolver implements SATEngine {
+    private static final int STOP_CHECK_MASK = 0xFFF;  // Check the stop flag every 4096 flips
+
+    private ClauseDatabase database;
+    private int numVariables;
+    private int[] occurrenceStarts;     // Start of each literal's list of clauses
+    private int[] occurrenceClauses;    // Clauses containing each literal
+    private int[] trueCount;            // Number of true literals in each clause
+    private int unsatisfied;            // Number of clauses with no true literal
+    private boolean[] values;           // Current assignment, index 0 unused
+    private long[] step;                // Step counter of the Gray code sequence
+    private boolean[] model;
+    private AtomicBoolean stop;         // Set by another thread to end the search early
+    private SolverStats stats;          // Search counters
+    private SolveLimits limits;         // Time, assignment and memory limits
+    private volatile Result result;     // Outcome of the last solve()
+    private long updates;               // Clause counts changed by flips
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables. Sets all variables to false.
+     *
+     * @param f - FileInfo object
+     */
+    public GrayCodeSolver(FileInfo f)
+    {
+        this(f.evaluateClauses());
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables from a compiled formula. Every solve()
+     * starts from all variables false.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public GrayCodeSolver(ClauseDatabase db)
+    {
+        database = db;
+        numVariables = db.getNumVariables();
+        occurrenceStarts = db.getOccurrenceStarts();
+        occurrenceClauses = db.getOccurrenceClauses();
+        values = new boolean[numVariables + 1];
+        step = new long[(numVariables + 63) / 64];
+        trueCount = new int[db.getNumClauses()];
+        stats = new SolverStats();
+        limits = SolveLimits.NONE;
+    }
+
+    /**
+     * Sets all variables to false, clears the step counter and counts the
+     * true literals of each clause, so a search starts from the beginning of
+     * the sequence and not where the last one ended.
+     */
+    private void reset()
+    {
+        Arrays.fill(values, false);
+        Arrays.fill(step, 0);
+        unsatisfied = 0;
+        ClauseView clause = database.view();
+        for (int c = 0; c < trueCount.length; c++) {
+            clause.moveTo(c);
+            trueCount[c] = 0;
+            for (int k = 0; k < clause.size(); k++) {
+                if (clause.get(k) < 0) {    // Negative literals are true when all are false
+                    trueCount[c]++;
+                }
+            }
+            if (trueCount[c] == 0) {
+                unsatisfied++;
+            }
+        }
+        stats.add(1, database.getNumClauses(), database.getLiteralCount());    // The all false assignment
+    }
+
+    /**
+     * Adds one to the step counter and finds the variable to flip, which is
+     * the one at the lowest set bit of the new step.
+     *
+     * @return variable to flip, or 0 if every assignment has been tried
+     */
+    private int nextFlip()
+    {
+        for (int w = 0; w < step.length; w++) {
+            step[w]++;
+            if (step[w] != 0) {
+                int bit = 64 * w + Long.numberOfTrailingZeros(step[w]);
+                return bit < numVariables ? numVariables - bit : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Flips a variable and updates the counts of the clauses it appears in.
+     *
+     * @param v - variable to flip
+     */
+    private void flip(int v)
+    {
+        values[v] = !values[v];
+        int gained = ClauseDatabase.occurrenceIndex(values[v] ? v : -v);
+        int lost = ClauseDatabase.occurrenceIndex(values[v] ? -v : v);
+
+        updates += occurrenceStarts[gained + 1] - occurrenceStarts[gained]
+                + occurrenceStarts[lost + 1] - occurrenceStarts[lost];
+        for (int k = occurrenceStarts[gained]; k < occurrenceStarts[gained + 1]; k++) {
+            if (trueCount[occurrenceClauses[k]]++ == 0) {
+                unsatisfied--;
+            }
+        }
+        for (int k = occurrenceStarts[lost]; k < occurrenceStarts[lost + 1]; k++) {
+            if (--trueCount[occurrenceClauses[k]] == 0) {
+                unsatisfied++;
+            }
+        }
+    }
+
+    /**
+     * Flips one variable at a time in Gray code order until no clause is
+     * unsatisfied or every assignment has been tried.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        long startTime = System.nanoTime();
+        long flips = 0;
+        long reported = 0;      // Flips and updates already added to stats
+        long reportedUpdates = 0;
+        long startAssignments = stats.getAssignments();     // The limit counts this solve() only
+        updates = 0;
+        result = Result.UNKNOWN;
+        reset();
+        Result outcome = Result.UNSAT;
+        while (true) {
+            if (unsatisfied == 0) {
+                outcome = Result.SAT;
+                break;
+            }
+            if ((flips & STOP_CHECK_MASK) == STOP_CHECK_MASK) {
+                stats.add(flips - reported, updates - reportedUpdates, updates - reportedUpdates);
+                reported = flips;
+                reportedUpdates = updates;
+                if ((stop != null && stop.get()) || limits.isReached(startTime, stats.getAssignments() - startAssignments)) {
+                    outcome = Result.UNKNOWN;
+                    break;
+                }
+            }
+            int v = nextFlip();
+            if (v == 0) {
+                break;
+            }
+            flip(v);
+            flips++;
+        }
+        // Each flip is one new assignment and each count update one clause and literal
+        stats.add(flips - reported, updates - reportedUpdates, updates - reportedUpdates);
+        result = outcome;
+        if (result == Result.SAT) {
+            model = values.clone();
+        }
+        return result == Result.SAT;
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits checked together with the stop flag
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return progress - part of all assignments that were visited
+     */
+    public double getProgress()
+    {
+        return Math.min(1.0, Math.scalb((double) stats.getAssignments(), -numVariables));
+    }
+
+    /**
+     * @return stats - search counters
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "gray";
+    }
+}
@@ -0,0 +1,179 @@
+package bruteforce;
+
+/**
+ * DAA - HornSolver class
+ *
+ * Purpose: This class solves Horn formulas, where no clause has more than one
+ * positive literal, in linear time with unit propagation. Every variable
+ * starts false, which satisfies every clause that has a negative literal.
+ * A clause whose negative literals have all been made false forces its
+ * positive literal true, and if it has none the formula is unsatisfiable.
+ * Each clause keeps a count of negative literals whose variable is still
+ * false, so setting a variable true only visits the clauses that have it as
+ * a negative literal. The model found is the smallest one.
+ *
+ * A renamable Horn formula is solved by negating the variables of the
+ * renaming found by FormulaClassifier, solving the Horn formula and negating
+ * the same variables in the model.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class HornSolver implements SATEngine {
+    private int numVariables;
+    private int[] literals;         // Clauses with the renaming applied
+    private int[] offsets;
+    private int[] occurrenceStarts; // Occurrence lists of the renamed clauses
+    private int[] occurrenceClauses;
+    private boolean[] renaming;     // Variables that were negated, null for none
+    private boolean[] model;
+    private Result result;
+    private SolverStats stats;
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables for a Horn formula.
+     *
+     * @param db - ClauseDatabase holding a Horn formula
+     */
+    public HornSolver(ClauseDatabase db)
+    {
+        this(db, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and negates the variables of the
+     * renaming in a copy of the clauses.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param flip - variables to negate so the formula is Horn, null for none
+     */
+    public HornSolver(ClauseDatabase db, boolean[] flip)
+    {
+        numVariables = db.getNumVariables();
+        offsets = db.copyOffsets();
+        literals = db.copyLiterals();
+        renaming = flip;
+        ClauseDatabase horn = db;
+        if (flip != null) {
+            for (int k = 0; k < literals.length; k++) {
+                if (flip[Math.abs(literals[k])]) {
+                    literals[k] = -literals[k];
+                }
+            }
+            horn = new ClauseDatabase(numVariables, literals, offsets);
+        }
+        for (int c = 0; c < horn.getNumClauses(); c++) {
+            int positive = 0;
+            for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                if (literals[k] > 0 && ++positive > 1) {
+                    throw new IllegalArgumentException("Clause " + (c + 1) + " is not Horn");
+                }
+            }
+        }
+        occurrenceStarts = horn.getOccurrenceStarts();
+        occurrenceClauses = horn.getOccurrenceClauses();
+        stats = new SolverStats();
+    }
+
+    /**
+     * Runs unit propagation from the all false assignment.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        int numClauses = offsets.length - 1;
+        int[] falseNegatives = new int[numClauses];     // Negative literals whose variable is still false
+        int[] positive = new int[numClauses];           // Positive literal of each clause, 0 if none
+        int[] queue = new int[numClauses];              // Clauses with all negative literals made false
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < numClauses; c++) {
+            for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                if (literals[k] < 0) {
+                    falseNegatives[c]++;
+                } else {
+                    positive[c] = literals[k];
+                }
+            }
+            if (falseNegatives[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+
+        boolean[] values = new boolean[numVariables + 1];
+        long assigned = 0;
+        long visits = 0;
+        result = Result.SAT;
+        while (head < tail) {
+            int c = queue[head++];
+            int v = positive[c];
+            if (v == 0) {   // Every literal is false
+                result = Result.UNSAT;
+                break;
+            }
+            if (values[v]) {
+                continue;
+            }
+            values[v] = true;
+            assigned++;
+            int list = ClauseDatabase.occurrenceIndex(-v);
+            for (int k = occurrenceStarts[list]; k < occurrenceStarts[list + 1]; k++) {
+                int d = occurrenceClauses[k];
+                visits++;
+                if (--falseNegatives[d] == 0) {
+                    queue[tail++] = d;
+                }
+            }
+        }
+        stats.add(assigned, visits, visits);
+
+        if (result == Result.SAT) {
+            if (renaming != null) {     // Undo the renaming in the model
+                for (int v = 1; v <= numVariables; v++) {
+                    values[v] ^= renaming[v];
+                }
+            }
+            model = values;
+        }
+        return result == Result.SAT;
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return stats - variables set true and clause counts updated
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return renaming == null ? "horn" : "renamable-horn";
+    }
+}
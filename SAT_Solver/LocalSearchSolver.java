@@ -0,0 +1,462 @@
+package bruteforce;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - LocalSearchSolver class
+ *
+ * Purpose: This class is a stochastic local search engine for large
+ * satisfiable formulas. It starts from a random assignment and keeps flipping
+ * one variable of an unsatisfied clause until no clause is unsatisfied. Two
+ * ways of picking the variable are supported:
+ *   WalkSAT - take a variable whose flip breaks no clause if there is one,
+ *             otherwise a random variable with probability noise and the
+ *             variable that breaks the fewest clauses the rest of the time.
+ *   ProbSAT - take each variable with probability proportional to
+ *             (0.9 + break)^-cb, where cb is the noise value.
+ * The break count of a variable is the number of clauses where it is the only
+ * true literal, so flipping it would make them unsatisfied. Break counts are
+ * kept up to date on every flip together with the number of true literals and
+ * the XOR of the true variables of each clause, which is the only true
+ * variable when that number is 1. The unsatisfied clauses are kept in a list
+ * with the position of each clause so they can be added and removed in
+ * constant time.
+ *
+ * Each try runs for at most maxFlips flips and then restarts from a new random
+ * assignment. The search cannot prove a formula unsatisfiable, so when all
+ * tries are used up the result is UNKNOWN. A model is only reported after it
+ * has been checked against the original clauses.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class LocalSearchSolver implements SATEngine {
+    public static final double WALKSAT_NOISE = 0.567;  // Default random walk probability of WalkSAT
+    public static final double PROBSAT_CB = 2.06;      // Default break exponent of ProbSAT
+    public static final long DEFAULT_MAX_FLIPS = 1000000;
+    public static final int DEFAULT_TRIES = 10;
+
+    private static final int STOP_CHECK_MASK = 0xFFF;  // Check the stop flag every 4096 flips
+    private static final double PROBSAT_EPS = 0.9;
+    private static final int MAX_TABLE_BREAK = 64;      // Break counts above this use the last entry
+
+    private ClauseDatabase database;    // Original formula, used to check the model
+    private int numVariables;
+    private boolean probSAT;            // true for ProbSAT, false for WalkSAT
+    private int[] clauseLiterals;       // Clauses without duplicate literals or tautologies
+    private int[] clauseStarts;         // Start of each clause in clauseLiterals
+    private int[] occurrenceStarts;     // Start of each literal's list of clauses
+    private int[] occurrenceClauses;    // Clauses containing each literal
+    private boolean empty;              // true if the formula has an empty clause
+
+    private boolean[] values;           // Current assignment, index 0 unused
+    private int[] trueCount;            // Number of true literals in each clause
+    private int[] trueXor;              // XOR of the true variables of each clause
+    private int[] breakCount;           // Clauses that only the variable satisfies
+    private int[] unsatList;            // Unsatisfied clauses
+    private int[] unsatPosition;        // Index of each clause in unsatList, -1 if satisfied
+    private int unsatSize;
+
+    private double noise;               // WalkSAT walk probability or ProbSAT exponent
+    private long maxFlips;              // Flips in one try
+    private int maxTries;               // Tries before giving up
+    private SplittableRandom random;
+    private double[] probabilities;     // ProbSAT weight of each break count
+    private double[] weights;           // Scratch space for the weights of one clause
+
+    private boolean[] model;
+    private volatile Result result;
+    private AtomicBoolean stop;         // Set by another thread to end the search early
+    private SolveLimits limits;
+    private SolverStats stats;
+
+    /**
+     * Constructor
+     *
+     * Initializes a WalkSAT engine with seed 0.
+     *
+     * @param f - FileInfo object
+     */
+    public LocalSearchSolver(FileInfo f)
+    {
+        this(f.evaluateClauses(), false, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables, removes duplicate literals and
+     * tautologies from a copy of the clauses and builds the occurrence
+     * lists.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param prob - true for ProbSAT, false for WalkSAT
+     * @param seed - seed of the random number generator
+     */
+    public LocalSearchSolver(ClauseDatabase db, boolean prob, long seed)
+    {
+        database = db;
+        numVariables = db.getNumVariables();
+        probSAT = prob;
+        noise = prob ? PROBSAT_CB : WALKSAT_NOISE;
+        maxFlips = DEFAULT_MAX_FLIPS;
+        maxTries = DEFAULT_TRIES;
+        random = new SplittableRandom(seed);
+        limits = SolveLimits.NONE;
+        stats = new SolverStats();
+
+        ClauseView clause = db.view();     // Reads an arena's clauses without copying them to the heap
+        clauseLiterals = new int[db.getLiteralCount()];
+        clauseStarts = new int[db.getNumClauses() + 1];
+        int numClauses = 0;
+        int size = 0;
+        int maxLength = 0;
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            int start = size;
+            clause.moveTo(c);
+            for (int k = 0; k < clause.size(); k++) {
+                clauseLiterals[size++] = ClauseDatabase.occurrenceIndex(clause.get(k));
+            }
+            Arrays.sort(clauseLiterals, start, size);
+            int kept = start;
+            boolean tautology = false;
+            for (int k = start; k < size; k++) {
+                int lit = clauseLiterals[k];
+                if (kept > start && clauseLiterals[kept - 1] == (lit ^ 1)) {
+                    tautology = true;   // x and -x sort next to each other
+                    break;
+                }
+                if (kept == start || clauseLiterals[kept - 1] != lit) {
+                    clauseLiterals[kept++] = lit;
+                }
+            }
+            if (tautology) {
+                size = start;
+                continue;
+            }
+            if (kept == start) {
+                empty = true;
+            }
+            size = kept;
+            maxLength = Math.max(maxLength, size - start);
+            clauseStarts[++numClauses] = size;
+        }
+        clauseStarts = Arrays.copyOf(clauseStarts, numClauses + 1);
+
+        occurrenceStarts = new int[2 * numVariables + 3];
+        for (int k = 0; k < size; k++) {
+            occurrenceStarts[clauseLiterals[k] + 1]++;
+        }
+        for (int i = 1; i < occurrenceStarts.length; i++) {
+            occurrenceStarts[i] += occurrenceStarts[i - 1];
+        }
+        occurrenceClauses = new int[size];
+        int[] fill = Arrays.copyOf(occurrenceStarts, occurrenceStarts.length);
+        for (int c = 0; c < numClauses; c++) {
+            for (int k = clauseStarts[c]; k < clauseStarts[c + 1]; k++) {
+                occurrenceClauses[fill[clauseLiterals[k]]++] = c;
+            }
+        }
+
+        values = new boolean[numVariables + 1];
+        trueCount = new int[numClauses];
+        trueXor = new int[numClauses];
+        breakCount = new int[numVariables + 1];
+        unsatList = new int[numClauses];
+        unsatPosition = new int[numClauses];
+        weights = new double[maxLength];
+    }
+
+    /**
+     * Fills the ProbSAT weight table for the current noise value.
+     */
+    private void makeProbabilities()
+    {
+        probabilities = new double[MAX_TABLE_BREAK + 1];
+        for (int b = 0; b <= MAX_TABLE_BREAK; b++) {
+            probabilities[b] = Math.pow(PROBSAT_EPS + b, -noise);
+        }
+    }
+
+    /**
+     * Sets a random assignment and counts the true literals, true variable
+     * XOR and break counts from scratch.
+     */
+    private void randomAssignment()
+    {
+        for (int v = 1; v <= numVariables; v++) {
+            values[v] = random.nextBoolean();
+        }
+        Arrays.fill(breakCount, 0);
+        unsatSize = 0;
+        for (int c = 0; c < trueCount.length; c++) {
+            int count = 0;
+            int xor = 0;
+            for (int k = clauseStarts[c]; k < clauseStarts[c + 1]; k++) {
+                int lit = clauseLiterals[k];
+                if (isTrue(lit)) {
+                    count++;
+                    xor ^= lit >> 1;
+                }
+            }
+            trueCount[c] = count;
+            trueXor[c] = xor;
+            unsatPosition[c] = -1;
+            if (count == 0) {
+                addUnsat(c);
+            } else if (count == 1) {
+                breakCount[xor]++;
+            }
+        }
+    }
+
+    /**
+     * @param lit - literal, 2 * variable or 2 * variable + 1 if negated
+     * @return true if the literal is true in the current assignment
+     */
+    private boolean isTrue(int lit)
+    {
+        return values[lit >> 1] == ((lit & 1) == 0);
+    }
+
+    /**
+     * @param c - clause that became unsatisfied
+     */
+    private void addUnsat(int c)
+    {
+        unsatPosition[c] = unsatSize;
+        unsatList[unsatSize++] = c;
+    }
+
+    /**
+     * Removes a clause from the list by moving the last clause into its place.
+     *
+     * @param c - clause that became satisfied
+     */
+    private void removeUnsat(int c)
+    {
+        int last = unsatList[--unsatSize];
+        int position = unsatPosition[c];
+        unsatList[position] = last;
+        unsatPosition[last] = position;
+        unsatPosition[c] = -1;
+    }
+
+    /**
+     * Flips a variable and updates the clauses it appears in.
+     *
+     * @param v - variable to flip
+     * @return number of clauses updated
+     */
+    private int flip(int v)
+    {
+        values[v] = !values[v];
+        int made = 2 * v + (values[v] ? 0 : 1);     // Literal that became true
+        int lost = made ^ 1;                         // Literal that became false
+
+        for (int k = occurrenceStarts[made]; k < occurrenceStarts[made + 1]; k++) {
+            int c = occurrenceClauses[k];
+            if (trueCount[c] == 0) {
+                removeUnsat(c);
+                breakCount[v]++;
+            } else if (trueCount[c] == 1) {
+                breakCount[trueXor[c]]--;   // The old only true variable is not critical anymore
+            }
+            trueCount[c]++;
+            trueXor[c] ^= v;
+        }
+        for (int k = occurrenceStarts[lost]; k < occurrenceStarts[lost + 1]; k++) {
+            int c = occurrenceClauses[k];
+            trueCount[c]--;
+            trueXor[c] ^= v;
+            if (trueCount[c] == 0) {
+                addUnsat(c);
+                breakCount[v]--;
+            } else if (trueCount[c] == 1) {
+                breakCount[trueXor[c]]++;   // The one true variable left is now critical
+            }
+        }
+        return occurrenceStarts[made + 1] - occurrenceStarts[made]
+                + occurrenceStarts[lost + 1] - occurrenceStarts[lost];
+    }
+
+    /**
+     * Picks the variable to flip in an unsatisfied clause.
+     *
+     * @param c - unsatisfied clause
+     * @return variable to flip
+     */
+    private int pickVariable(int c)
+    {
+        int start = clauseStarts[c];
+        int length = clauseStarts[c + 1] - start;
+        if (probSAT) {
+            double total = 0;
+            for (int i = 0; i < length; i++) {
+                int b = breakCount[clauseLiterals[start + i] >> 1];
+                total += probabilities[Math.min(b, MAX_TABLE_BREAK)];
+                weights[i] = total;
+            }
+            double r = random.nextDouble() * total;
+            for (int i = 0; i < length - 1; i++) {
+                if (r < weights[i]) {
+                    return clauseLiterals[start + i] >> 1;
+                }
+            }
+            return clauseLiterals[start + length - 1] >> 1;
+        }
+
+        int best = clauseLiterals[start] >> 1;
+        int bestBreak = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int i = 0; i < length; i++) {
+            int v = clauseLiterals[start + i] >> 1;
+            int b = breakCount[v];
+            if (b < bestBreak) {
+                best = v;
+                bestBreak = b;
+                ties = 1;
+            } else if (b == bestBreak && random.nextInt(++ties) == 0) {
+                best = v;   // Pick evenly among the variables with the same break count
+            }
+        }
+        if (bestBreak > 0 && random.nextDouble() < noise) {
+            return clauseLiterals[start + random.nextInt(length)] >> 1;
+        }
+        return best;
+    }
+
+    /**
+     * Runs tries of local search until a model is found, the tries are used
+     * up or the search is stopped.
+     *
+     * @return true if a model was found, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        if (empty) {    // No assignment satisfies an empty clause
+            result = Result.UNSAT;
+            return false;
+        }
+        if (probSAT) {
+            makeProbabilities();
+        }
+        long startTime = System.nanoTime();
+        long flips = 0;
+        long updates = 0;
+        long inspected = 0;
+        long reported = 0;      // Flips already added to stats
+        long startFlips = stats.getAssignments();   // The limit counts the flips of this solve() only
+        result = Result.UNKNOWN;
+
+        search:
+        for (int attempt = 0; attempt < maxTries; attempt++) {
+            randomAssignment();
+            for (long f = 0; f < maxFlips; f++) {
+                if (unsatSize == 0) {
+                    break search;
+                }
+                if ((++flips & STOP_CHECK_MASK) == 0) {
+                    stats.add(flips - reported, updates, inspected);    // Keeps the counts live
+                    reported = flips;
+                    updates = 0;
+                    inspected = 0;
+                    if ((stop != null && stop.get()) || limits.isReached(startTime, stats.getAssignments() - startFlips)) {
+                        break search;
+                    }
+                }
+                int c = unsatList[random.nextInt(unsatSize)];
+                inspected += clauseStarts[c + 1] - clauseStarts[c];
+                updates += flip(pickVariable(c));
+            }
+        }
+        stats.add(flips - reported, updates, inspected);
+
+        if (unsatSize == 0) {
+            boolean[] found = values.clone();
+            if (!database.isSatisfiedBy(found)) {   // Should never happen, but never report a bad model
+                throw new IllegalStateException("Local search model does not satisfy the formula");
+            }
+            model = found;
+            result = Result.SAT;
+        }
+        return result == Result.SAT;
+    }
+
+    /**
+     * @param value - WalkSAT walk probability from 0 to 1, or ProbSAT break exponent
+     */
+    public void setNoise(double value)
+    {
+        noise = value;
+    }
+
+    /**
+     * @param flips - flips in one try before restarting
+     */
+    public void setMaxFlips(long flips)
+    {
+        maxFlips = flips;
+    }
+
+    /**
+     * @param tries - number of tries, each from a new random assignment
+     */
+    public void setMaxTries(int tries)
+    {
+        maxTries = tries;
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits checked together with the stop flag, flips count as assignments
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * @return result - SAT if a model was found, UNKNOWN if the budget ran
+     *         out, UNSAT only for a formula with an empty clause
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return stats - flips, clause updates and literals looked at when picking
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return probSAT ? "probsat" : "walksat";
+    }
+}
@@ -1,6 +1,7 @@
 package bruteforce;
 
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -13,7 +14,12 @@ import java.util.Scanner;
  * keeps track of the time taken to test each file and outputs its success.
  * Data is stored in ArrayList of Data objects. Method displayData() is
  * called after all files are done testing and displays a neat table showing
- * the data collected for each tested file.
+ * the data collected for each tested file. The solver used for each file is
+ * picked with the options given on the command line (see Config). With the
+ * -batch option a BatchRunner solves a whole directory without prompting,
+ * and with -serve a SolverDaemon solves formulas sent over a socket.
+ * Timing starts after the file name is entered, so the prompt is not part
+ * of the time, and each phase is timed with System.nanoTime().
  *
  * @author Anwara Era
  * @version 2-27-23
@@ -23,25 +29,99 @@ public class Main {
 
     public static void main(String[] args)
     {
+        Config config = Config.parse(args);     // Read command line options
+        if (config.getBatch() != null) {        // Batch mode runs without prompting
+            new BatchRunner(config).run();
+            return;
+        }
+        if (config.getServe() > 0) {            // Daemon mode answers requests until stopped
+            new SolverDaemon(config).run();
+            return;
+        }
         boolean continueLoop = true;    // Loop control
         ArrayList<Data> allData = new ArrayList<>();    // List of data for each file
 
         while(continueLoop) {
-            long startTime = System.currentTimeMillis();
             FileInfo file = new FileInfo();     // Create new File object
             file.readFile();                    // Call methods to read and set values from file
+            SolveMonitor monitor = config.createMonitor(file.getFileName());  // Live progress over JMX
+            file.setCache(config.getFormulaCache());
+            long startTime = System.nanoTime();
             file.setValues();
+            System.out.printf("%s %d bytes in %.1f ms (%.1f MB/s)%n",
+                    file.isFromCache() ? "Loaded compiled formula," : "Parsed", file.getBytesRead(),
+                    file.getParseTime() / 1e6, file.getParseThroughput());
 
-            Solver formula = new Solver(file);  // Create new Solver object and pass File object
+            long compileStart = System.nanoTime();
+            monitor.setPhase("compiling");
+            SATEngine formula;
+            if (config.isCount()) {
+                formula = config.createCounter(file);       // Count the models
+            } else if (config.isEnumerate()) {
+                formula = config.createEnumerator(file);    // Write every model
+            } else {
+                formula = config.createEngine(file);        // Create solver picked on command line
+            }
+            monitor.setEngine(formula);
+            long solveStart = System.nanoTime();
             boolean solved = formula.solve();   // Call solve() to test file
-            if (solved) {                       // Print out if satisfiable or not
+            long endTime = System.nanoTime();
+            long peakHeap = monitor.getPeakHeapBytes();
+            long offHeap = monitor.getOffHeapBytes();
+            monitor.close();
+            SATEngine inner = formula;
+            if (formula instanceof CachedEngine) {
+                CachedEngine cached = (CachedEngine) formula;
+                if (cached.isHit()) {
+                    System.out.printf("Answered from the result cache (%.0f%% of lookups hit)%n",
+                            config.getResultCache().getHitRate() * 100);
+                }
+                inner = cached.getEngine() == null ? formula : cached.getEngine();
+            }
+            if (inner instanceof PreprocessedEngine) {
+                System.out.println(((PreprocessedEngine) inner).getPreprocessor().getReport());
+                inner = ((PreprocessedEngine) inner).getEngine();
+            }
+            if (inner instanceof ComponentSolver) {
+                System.out.println("Split into " + ((ComponentSolver) inner).getNumComponents()
+                        + " independent parts");
+            }
+            PortfolioSolver race = inner instanceof PortfolioSolver ? (PortfolioSolver) inner : null;
+            if (race != null) {
+                System.out.println("Winner: " + (race.getWinner() == null ? "none" : race.getWinner()));
+            }
+            if (formula instanceof ModelCounter) {
+                ModelCounter counter = (ModelCounter) formula;
+                System.out.println(counter.getCount() == null
+                        ? "Unknown: stopped before the count was finished" : "Models: " + counter.getCount());
+                System.out.printf("Component cache: %.1f%% of %d lookups hit, %d entries, %.1f MB%n",
+                        counter.getCacheHitRate() * 100, counter.getCacheLookups(),
+                        counter.getCacheEntries(), counter.getCacheBytes() / 1048576.0);
+            } else if (formula instanceof ModelEnumerator) {
+                ModelEnumerator all = (ModelEnumerator) formula;
+                System.out.println((all.isComplete() ? "Found all " : "Stopped after ") + all.getFound()
+                        + " models (" + all.getCalls() + " solver calls)");
+            } else if (solved) {                // Print out if satisfiable or not
                 System.out.println("Satisfiable!");
+                System.out.println(modelString(formula.getModel()));
+            } else if (formula.getResult() == Result.UNKNOWN) {
+                System.out.printf("Unknown: stopped before an answer was found (%.2f%% of the search space covered)%n",
+                        formula.getProgress() * 100);
             } else
                 System.out.println("Not Satisfiable");
 
-            long endTime = System.currentTimeMillis();
-            long totalTime = endTime-startTime;     // Calculate time taken to test
-            allData.add(new Data(file.getFileName(), totalTime, solved));
+            long totalTime = (endTime - startTime) / 1000000;   // Calculate time taken to test in ms
+            Data data = new Data(file.getFileName(), totalTime, solved, formula.getWorkers());
+            data.setPhaseTimes(file.getReadTime(), file.getParseTime() - file.getReadTime(),
+                    solveStart - compileStart, endTime - solveStart);
+            data.setStats(formula.getStats());
+            data.setMemory(peakHeap, offHeap);
+            data.setResult(formula.getResult(), formula.getProgress());
+            data.setPath(formula.getName());
+            if (race != null) {
+                data.setPortfolio(race.getWinner(), race.getTimes());
+            }
+            allData.add(data);
 
             Scanner in = new Scanner(System.in);    // Check if user wants to continue
             System.out.println("Would you like to test another file? (Y/N): ");
@@ -61,13 +141,74 @@ public class Main {
     public static void displayData(ArrayList<Data> allData)
     {
         System.out.println();
-        System.out.println("File Name:\tTime(ms):\tSatisfiable:");  // Table header
-        System.out.println("-------------------------------------");
+        System.out.println("File Name:\tTime(ms):\tSatisfiable:\tWorkers:\tSearched:\tPath:");  // Table header
+        System.out.println("-------------------------------------------------------------------------------------");
         for (Data d : allData)
         {
             System.out.println(d.getFileName() + "\t\t" +
                     d.getTimeTaken() + "\t\t" +
-                    d.isSatisfiable());
+                    (d.getResult() == Result.UNKNOWN ? "unknown" : d.isSatisfiable()) + "\t\t" +
+                    d.getWorkers() + "\t\t" +
+                    String.format("%.2f%%", d.getProgress() * 100) + "\t\t" +
+                    d.getPath());
+        }
+
+        System.out.println();
+        System.out.println("File Name:\tRead(ms):\tParse(ms):\tCompile(ms):\tSolve(ms):"
+                + "\tAssignments:\tClause Evals:\tLiterals:\tSkipped:\tAssignments/s:\tPeak Heap(MB):\tOff-heap(MB):");
+        System.out.println("-----------------------------------------------------"
+                + "-----------------------------------------------------------------------------");
+        for (Data d : allData)
+        {
+            System.out.printf("%s\t\t%.3f\t\t%.3f\t\t%.3f\t\t%.3f\t\t%d\t\t%d\t\t%d\t\t%d\t\t%.0f\t\t%.1f\t\t%.1f%n",
+                    d.getFileName(),
+                    d.getReadTime() / 1e6,
+                    d.getParseTime() / 1e6,
+                    d.getCompileTime() / 1e6,
+                    d.getSolveTime() / 1e6,
+                    d.getAssignments(),
+                    d.getClauseEvaluations(),
+                    d.getLiteralsInspected(),
+                    d.getSkipped(),
+                    d.getAssignmentRate(),
+                    d.getPeakHeap() / 1048576.0,
+                    d.getOffHeap() / 1048576.0);
+        }
+
+        boolean portfolio = false;
+        for (Data d : allData) {
+            portfolio |= !d.getEngineTimes().isEmpty();
+        }
+        if (portfolio) {    // Only shown when the portfolio engine was used
+            System.out.println();
+            System.out.println("File Name:\tWinner:\t\tEngine Times(ms):");
+            System.out.println("-----------------------------------------------------");
+            for (Data d : allData)
+            {
+                StringBuilder times = new StringBuilder();
+                for (Map.Entry<String, Long> e : d.getEngineTimes().entrySet()) {
+                    times.append(String.format("%s=%.3f ", e.getKey(), e.getValue() / 1e6));
+                }
+                System.out.println(d.getFileName() + "\t\t" +
+                        (d.getWinner() == null ? "none" : d.getWinner()) + "\t\t" +
+                        times.toString().trim());
+            }
+        }
+    }
+
+    /**
+     * Makes a DIMACS style line of the values in a model, where a negative
+     * number means the variable is false.
+     *
+     * @param model - values of the variables, index 0 unused
+     * @return line - the model as a string ending in 0
+     */
+    public static String modelString(boolean[] model)
+    {
+        StringBuilder line = new StringBuilder("v");
+        for (int i = 1; i < model.length; i++) {
+            line.append(' ').append(model[i] ? i : -i);
         }
+        return line.append(" 0").toString();
     }
 }
@@ -0,0 +1,550 @@
+package bruteforce;
+
+import java.math.BigInteger;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - ModelCounter class
+ *
+ * Purpose: This class counts the satisfying assignments of a formula (#SAT)
+ * instead of stopping at the first one. The brute force search would have
+ * to try all 2^n assignments to do this. The counter splits on one variable
+ * at a time like DPLL and runs unit propagation after each split. After
+ * propagation the clauses that are left are broken into components that
+ * share no variables, and each is counted on its own. The count of the
+ * formula is the product of the counts of its components, times 2 for each
+ * variable that no clause needs anymore. Counts are BigIntegers, so they
+ * are exact however many variables there are.
+ *
+ * The same component often comes up again under different splits, so the
+ * count of every component is kept in a cache of the most recently used
+ * ones, up to a size in bytes, since the key of a large component is
+ * large. The key of a component is its clause numbers followed by its free
+ * variables. Every clause left is unsatisfied and the variables that are
+ * not free are all false in it, so these two lists fix the component
+ * exactly. Cache hits, the number of entries and the memory they take are
+ * reported next to the count.
+ *
+ * The class is a SATEngine so it can be monitored, stopped and limited like
+ * the solvers. solve() tells if the count is above 0, getCount() gives the
+ * count and getModel() is always null, no single model is kept. Decisions
+ * count as assignments for the limits and the stats.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ModelCounter implements SATEngine {
+    public static final int DEFAULT_CACHE_MB = 64;     // Cache size in megabytes when none is given
+
+    private static final int STOP_CHECK_MASK = 0xFFF;   // Check the stop flag every 4096 decisions
+    private static final int ENTRY_OVERHEAD = 160;      // Bytes of map entry, IntBuffer and BigInteger headers
+
+    private int numVariables;           // Holds # of variables in formula
+    private int[] literals;             // Literals of every clause back to back
+    private int[] offsets;              // Start of each clause followed by the total length
+    private int[] occurrenceStarts;     // Start of each literal's occurrence list
+    private int[] occurrenceClauses;    // Clause numbers of every occurrence list
+
+    private byte[] assigns;             // Value of each variable: 1 true, -1 false, 0 unassigned
+    private int[] trail;                // Assigned literals in assignment order
+    private int trailSize;
+    private int qhead;                  // Next trail position to propagate
+
+    private int epoch;                  // Stamp of the current residual and component search
+    private int[] residualStamp;        // residualStamp[c] == epoch if clause c is left after propagation
+    private int[] clauseSeen;           // clauseSeen[c] == epoch once clause c is in a component
+    private int[] varSeen;              // varSeen[v] == epoch once variable v is in a component
+    private int[] score;                // Occurrences of each variable while a branch variable is picked
+
+    private LinkedHashMap<IntBuffer, BigInteger> cache;     // Counts of components, least recently used first
+    private long cacheBytes;            // Estimated memory held by the cache
+    private long cacheLimit;            // Most memory the cache may hold in bytes
+    private long lookups;               // Cache lookups
+    private long hits;                  // Cache lookups that found a count
+
+    private long decisions;             // Splits made
+    private long propagations;          // Literals propagated
+    private long clauseVisits;          // Clauses looked at by propagate()
+
+    private AtomicBoolean stop;         // Set by another thread to stop counting
+    private SolveLimits limits;         // Time, assignment and memory limits
+    private long startTime;
+    private boolean stopped;            // true once the stop flag or a limit ended the count
+    private volatile Result result;
+    private BigInteger count;
+
+    /**
+     * Constructor
+     *
+     * Initializes the clauses and the arrays of the search.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param cacheMegabytes - most memory the component cache may hold
+     */
+    public ModelCounter(ClauseDatabase db, int cacheMegabytes)
+    {
+        numVariables = db.getNumVariables();
+        literals = db.copyLiterals();     // Indexed by the search, so kept on the heap
+        offsets = db.copyOffsets();
+        occurrenceStarts = db.getOccurrenceStarts();
+        occurrenceClauses = db.getOccurrenceClauses();
+        int clauses = db.getNumClauses();
+
+        assigns = new byte[numVariables + 1];
+        trail = new int[numVariables];
+        residualStamp = new int[clauses];
+        clauseSeen = new int[clauses];
+        varSeen = new int[numVariables + 1];
+        score = new int[numVariables + 1];
+        cache = new LinkedHashMap<>(16, 0.75f, true);
+        cacheLimit = cacheMegabytes * 1048576L;
+        limits = SolveLimits.NONE;
+        result = Result.UNKNOWN;
+    }
+
+    /**
+     * Counts the models of the formula.
+     *
+     * @return true if the formula has at least one model, false if it has
+     *         none or the count was stopped
+     */
+    public boolean solve()
+    {
+        result = Result.UNKNOWN;
+        count = null;
+        stopped = false;
+        startTime = System.nanoTime();
+        Arrays.fill(assigns, (byte) 0);
+        trailSize = 0;
+        qhead = 0;
+
+        BigInteger total = countFormula();
+        if (stopped) {
+            return false;
+        }
+        count = total;
+        result = total.signum() > 0 ? Result.SAT : Result.UNSAT;
+        return result == Result.SAT;
+    }
+
+    /**
+     * Assigns the unit clauses, propagates them and counts what is left.
+     *
+     * @return count - number of models of the formula
+     */
+    private BigInteger countFormula()
+    {
+        int clauses = offsets.length - 1;
+        for (int c = 0; c < clauses; c++) {
+            int size = offsets[c + 1] - offsets[c];
+            if (size == 0) {
+                return BigInteger.ZERO;     // Empty clause
+            }
+            if (size == 1) {
+                int literal = literals[offsets[c]];
+                int value = value(literal);
+                if (value < 0) {
+                    return BigInteger.ZERO;
+                }
+                if (value == 0) {
+                    assign(literal);
+                }
+            }
+        }
+        if (!propagate()) {
+            return BigInteger.ZERO;
+        }
+        int[] all = new int[clauses];
+        for (int c = 0; c < clauses; c++) {
+            all[c] = c;
+        }
+        int[] vars = new int[numVariables];
+        for (int v = 1; v <= numVariables; v++) {
+            vars[v - 1] = v;
+        }
+        return countResidual(all, vars);
+    }
+
+    /**
+     * Counts the models of a component: looks it up in the cache, or splits
+     * on its most frequent variable and adds up the counts of both values.
+     *
+     * @param clauses - clause numbers of the component, sorted
+     * @param vars - free variables of the component, sorted
+     * @return count - number of models of the component over its variables
+     */
+    private BigInteger countComponent(int[] clauses, int[] vars)
+    {
+        int[] words = new int[1 + clauses.length + vars.length];
+        words[0] = clauses.length;
+        System.arraycopy(clauses, 0, words, 1, clauses.length);
+        System.arraycopy(vars, 0, words, 1 + clauses.length, vars.length);
+        IntBuffer key = IntBuffer.wrap(words);
+        lookups++;
+        BigInteger known = cache.get(key);
+        if (known != null) {
+            hits++;
+            return known;
+        }
+
+        int branch = pickVariable(clauses, vars);
+        BigInteger total = BigInteger.ZERO;
+        for (int literal : new int[] {branch, -branch}) {
+            decisions++;
+            if ((decisions & STOP_CHECK_MASK) == 0 && isStopped()) {
+                stopped = true;
+            }
+            if (stopped) {
+                return BigInteger.ZERO;
+            }
+            int mark = trailSize;
+            assign(literal);
+            if (propagate()) {
+                total = total.add(countResidual(clauses, vars));
+            }
+            undo(mark);
+        }
+        if (!stopped) {
+            remember(key, total);
+        }
+        return total;
+    }
+
+    /**
+     * Puts a component count in the cache and drops the least recently used
+     * counts until the cache fits in its limit again.
+     *
+     * @param key - clause numbers and free variables of the component
+     * @param total - count of the component
+     */
+    private void remember(IntBuffer key, BigInteger total)
+    {
+        long bytes = entryBytes(key, total);
+        if (bytes > cacheLimit) {
+            return;     // Would push out everything else
+        }
+        cache.put(key, total);
+        cacheBytes += bytes;
+        Iterator<Map.Entry<IntBuffer, BigInteger>> eldest = cache.entrySet().iterator();
+        while (cacheBytes > cacheLimit) {
+            Map.Entry<IntBuffer, BigInteger> entry = eldest.next();
+            cacheBytes -= entryBytes(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Counts the models of what is left of a component after a split and
+     * propagation. The clauses that are still unsatisfied are broken into
+     * new components, and each variable of the old component that is
+     * neither assigned nor in a clause left doubles the count.
+     *
+     * @param clauses - clause numbers of the component before the split
+     * @param vars - free variables of the component before the split
+     * @return count - number of models over the unassigned variables of vars
+     */
+    private BigInteger countResidual(int[] clauses, int[] vars)
+    {
+        int residual = ++epoch;
+        for (int c : clauses) {
+            if (!isSatisfied(c)) {
+                residualStamp[c] = residual;
+            }
+        }
+
+        // Collect the components of the clauses left, each with its variables
+        int[][] componentClauses = new int[clauses.length][];
+        int[][] componentVars = new int[clauses.length][];
+        int components = 0;
+        int[] clauseQueue = new int[clauses.length];
+        int[] varList = new int[vars.length];
+        for (int start : clauses) {
+            if (residualStamp[start] != residual || clauseSeen[start] == residual) {
+                continue;
+            }
+            int clauseCount = 0;
+            int varCount = 0;
+            clauseSeen[start] = residual;
+            clauseQueue[clauseCount++] = start;
+            for (int head = 0; head < clauseCount; head++) {
+                int c = clauseQueue[head];
+                for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                    int v = Math.abs(literals[k]);
+                    if (assigns[v] != 0 || varSeen[v] == residual) {
+                        continue;
+                    }
+                    varSeen[v] = residual;
+                    varList[varCount++] = v;
+                    for (int literal : new int[] {v, -v}) {
+                        int i = ClauseDatabase.occurrenceIndex(literal);
+                        for (int j = occurrenceStarts[i]; j < occurrenceStarts[i + 1]; j++) {
+                            int d = occurrenceClauses[j];
+                            if (residualStamp[d] == residual && clauseSeen[d] != residual) {
+                                clauseSeen[d] = residual;
+                                clauseQueue[clauseCount++] = d;
+                            }
+                        }
+                    }
+                }
+            }
+            componentClauses[components] = Arrays.copyOf(clauseQueue, clauseCount);
+            componentVars[components] = Arrays.copyOf(varList, varCount);
+            Arrays.sort(componentClauses[components]);
+            Arrays.sort(componentVars[components]);
+            components++;
+        }
+
+        int free = 0;
+        for (int v : vars) {
+            if (assigns[v] == 0 && varSeen[v] != residual) {
+                free++;
+            }
+        }
+        BigInteger total = BigInteger.ONE.shiftLeft(free);
+        for (int i = 0; i < components && total.signum() > 0 && !stopped; i++) {
+            total = total.multiply(countComponent(componentClauses[i], componentVars[i]));
+        }
+        return total;
+    }
+
+    /**
+     * Picks the free variable of a component that occurs in the most of its
+     * clauses.
+     *
+     * @param clauses - clause numbers of the component
+     * @param vars - free variables of the component
+     * @return variable - variable to split on
+     */
+    private int pickVariable(int[] clauses, int[] vars)
+    {
+        for (int c : clauses) {
+            for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                score[Math.abs(literals[k])]++;
+            }
+        }
+        int best = vars[0];
+        for (int v : vars) {
+            if (score[v] > score[best]) {
+                best = v;
+            }
+        }
+        for (int c : clauses) {
+            for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                score[Math.abs(literals[k])] = 0;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Propagates the literals on the trail that were not propagated yet. A
+     * clause whose literals are all false but one gets that one assigned.
+     *
+     * @return true if no clause became false, false on a conflict
+     */
+    private boolean propagate()
+    {
+        while (qhead < trailSize) {
+            int falseLiteral = -trail[qhead++];
+            propagations++;
+            int i = ClauseDatabase.occurrenceIndex(falseLiteral);
+            for (int j = occurrenceStarts[i]; j < occurrenceStarts[i + 1]; j++) {
+                int c = occurrenceClauses[j];
+                clauseVisits++;
+                int unassigned = 0;
+                int last = 0;
+                boolean satisfied = false;
+                for (int k = offsets[c]; k < offsets[c + 1] && !satisfied; k++) {
+                    int value = value(literals[k]);
+                    if (value > 0) {
+                        satisfied = true;
+                    } else if (value == 0 && literals[k] != last) {
+                        unassigned++;
+                        last = literals[k];
+                    }
+                }
+                if (satisfied) {
+                    continue;
+                }
+                if (unassigned == 0) {
+                    return false;
+                }
+                if (unassigned == 1) {
+                    assign(last);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param c - clause number
+     * @return true if a literal of the clause is true
+     */
+    private boolean isSatisfied(int c)
+    {
+        for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+            if (value(literals[k]) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param literal - a DIMACS literal
+     * @return value - 1 if the literal is true, -1 if false, 0 if unassigned
+     */
+    private int value(int literal)
+    {
+        int value = assigns[Math.abs(literal)];
+        return literal > 0 ? value : -value;
+    }
+
+    /**
+     * Makes a literal true and puts it on the trail.
+     *
+     * @param literal - a DIMACS literal
+     */
+    private void assign(int literal)
+    {
+        assigns[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * Unassigns every literal put on the trail after a mark.
+     *
+     * @param mark - trail size to go back to
+     */
+    private void undo(int mark)
+    {
+        while (trailSize > mark) {
+            assigns[Math.abs(trail[--trailSize])] = 0;
+        }
+        qhead = trailSize;
+    }
+
+    /**
+     * @param key - key of a cache entry
+     * @param value - count of the entry
+     * @return bytes - estimated memory held by the entry
+     */
+    private static long entryBytes(IntBuffer key, BigInteger value)
+    {
+        return ENTRY_OVERHEAD + 4L * key.capacity() + value.bitLength() / 8;
+    }
+
+    /**
+     * @return true if another thread asked the count to stop or a limit was reached
+     */
+    private boolean isStopped()
+    {
+        return (stop != null && stop.get()) || limits.isReached(startTime, decisions);
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits checked together with the stop flag, decisions
+     *            count as assignments
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * @return count - number of models found by the last solve(), null if it was stopped
+     */
+    public BigInteger getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return model - always null, counting keeps no single model
+     */
+    public boolean[] getModel()
+    {
+        return null;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "count";
+    }
+
+    /**
+     * @return result - SAT if the count is above 0, UNSAT if it is 0, UNKNOWN if stopped
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return stats - decisions, clauses looked at by propagate() and literals propagated
+     */
+    public SolverStats getStats()
+    {
+        SolverStats stats = new SolverStats();
+        stats.add(decisions, clauseVisits, propagations);
+        return stats;
+    }
+
+    /**
+     * @return lookups - holds number of component cache lookups
+     */
+    public long getCacheLookups()
+    {
+        return lookups;
+    }
+
+    /**
+     * @return hits - holds number of component cache lookups that found a count
+     */
+    public long getCacheHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return hitRate - part of the cache lookups that found a count, 0 if there were none
+     */
+    public double getCacheHitRate()
+    {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return entries - number of component counts in the cache
+     */
+    public int getCacheEntries()
+    {
+        return cache.size();
+    }
+
+    /**
+     * @return cacheBytes - holds estimated memory of the cache in bytes
+     */
+    public long getCacheBytes()
+    {
+        return cacheBytes;
+    }
+}
@@ -0,0 +1,261 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - ModelEnumerator class
+ *
+ * Purpose: This class finds every model of a formula, or every distinct
+ * projection of the models onto a chosen set of variables, and hands each
+ * one to a ModelSink as soon as it is found. Nothing is buffered, so a run
+ * with millions of models uses the same memory as one with ten.
+ *
+ * The usual way to enumerate is to add a blocking clause that rules out
+ * each model after it is found, but then the formula grows by one clause
+ * per model. Here the models are blocked by the order of the search
+ * instead. The projected variables are walked as a binary tree, in the
+ * order they were given, and every node is a call to the incremental
+ * CDCLSolver with the path to the node as assumptions. The branch that
+ * agrees with the model found for the parent is known to be satisfiable and
+ * is taken without a call, and the other branch is tried when the search
+ * backs up. A subtree is left for good once it is done, so every projection
+ * is found exactly once, and the only state is the path, no longer than the
+ * number of projected variables. Learned clauses are kept between calls and
+ * the solver deletes them by activity as usual.
+ *
+ * The class is a SATEngine so it can be monitored, stopped and limited like
+ * the solvers. solve() enumerates, getResult() is SAT if a model was found,
+ * UNSAT if there is none and UNKNOWN if the enumeration was stopped before
+ * the first one, and getModel() is the last full model found.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ModelEnumerator implements SATEngine {
+    private CDCLSolver solver;          // Answers the satisfiability of each node
+    private int[] projection;           // Variables enumerated, in branching order
+    private ModelSink sink;             // Takes the models
+    private long limit;                 // Most models to find, 0 for all
+
+    private AtomicBoolean stop;         // Set by another thread to stop the enumeration
+    private SolveLimits limits;         // Time, assignment and memory limits
+    private volatile long found;        // Models handed to the sink so far
+    private long calls;                 // Calls to the solver
+    private boolean complete;           // true if every model was found
+    private volatile Result result;
+    private boolean[] model;            // Last full model found
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param project - variables to enumerate in branching order, null for all of them
+     * @param s - ModelSink that takes the models
+     * @param max - most models to find, 0 for all
+     */
+    public ModelEnumerator(ClauseDatabase db, int[] project, ModelSink s, long max)
+    {
+        int n = db.getNumVariables();
+        if (project == null) {
+            project = new int[n];
+            for (int v = 1; v <= n; v++) {
+                project[v - 1] = v;
+            }
+        }
+        for (int v : project) {
+            if (v < 1 || v > n) {
+                throw new IllegalArgumentException("Projected variable " + v + " is not in the formula");
+            }
+        }
+        solver = new CDCLSolver(db);
+        projection = project;
+        sink = s;
+        limit = max;
+        limits = SolveLimits.NONE;
+        result = Result.UNKNOWN;
+    }
+
+    /**
+     * Walks the tree of the projected variables and hands every model to
+     * the sink.
+     *
+     * @return true if at least one model was found
+     */
+    public boolean solve()
+    {
+        result = Result.UNKNOWN;
+        found = 0;
+        calls = 0;
+        complete = false;
+        model = null;
+        long startTime = System.nanoTime();
+        try {
+            complete = walk(startTime);
+        } finally {
+            sink.finish();
+        }
+        if (found > 0) {
+            result = Result.SAT;
+        } else if (complete) {
+            result = Result.UNSAT;
+        }
+        return found > 0;
+    }
+
+    /**
+     * Walks the tree depth first. path[0..depth) are the assumptions of the
+     * current node and flipped[d] tells if path[d] is already the second
+     * value tried for its variable.
+     *
+     * @param startTime - System.nanoTime() when solve() started
+     * @return true if the whole tree was walked, false if it was stopped
+     */
+    private boolean walk(long startTime)
+    {
+        int k = projection.length;
+        int[] path = new int[k];
+        boolean[] flipped = new boolean[k];
+        if (!call(path, 0)) {
+            return solver.getResult() == Result.UNSAT;
+        }
+        boolean[] current = solver.getModel();
+        int depth = 0;
+        while (true) {
+            // The node at depth is satisfiable and current is a model of it
+            if (depth < k) {
+                int v = projection[depth];
+                path[depth] = current[v] ? v : -v;
+                flipped[depth] = false;
+                depth++;
+                continue;
+            }
+            model = current;
+            found++;
+            int[] literals = path.clone();
+            if (!sink.accept(literals) || (limit > 0 && found >= limit)) {
+                return false;
+            }
+
+            // Back up to the deepest variable whose other value is not tried yet
+            boolean next = false;
+            while (!next && depth > 0) {
+                depth--;
+                if (flipped[depth]) {
+                    continue;
+                }
+                if ((stop != null && stop.get()) || limits.isReached(startTime, solver.getPropagations())) {
+                    return false;
+                }
+                flipped[depth] = true;
+                path[depth] = -path[depth];
+                if (call(path, depth + 1)) {
+                    current = solver.getModel();
+                    depth++;
+                    next = true;
+                } else if (solver.getResult() == Result.UNKNOWN) {
+                    return false;
+                }
+            }
+            if (!next) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Asks the solver if the formula is satisfiable under the first
+     * assumptions of a path.
+     *
+     * @param path - assumption literals
+     * @param length - number of them to use
+     * @return true if satisfiable
+     */
+    private boolean call(int[] path, int length)
+    {
+        calls++;
+        int[] assumed = new int[length];
+        System.arraycopy(path, 0, assumed, 0, length);
+        return solver.solve(assumed);
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it,
+     *               also passed to the solver of the nodes
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+        solver.setStopFlag(flag);
+    }
+
+    /**
+     * @param l - limits of the whole enumeration, also passed to the solver
+     *            of the nodes, propagated literals count as assignments
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+        solver.setLimits(l);
+    }
+
+    /**
+     * @return found - holds number of models handed to the sink
+     */
+    public long getFound()
+    {
+        return found;
+    }
+
+    /**
+     * @return calls - holds number of calls to the solver
+     */
+    public long getCalls()
+    {
+        return calls;
+    }
+
+    /**
+     * @return complete - true if every model was found, false if the limit
+     *         or a stop ended the enumeration
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * @return model - last full model found, null if none
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "enumerate";
+    }
+
+    /**
+     * @return result - SAT if a model was found, UNSAT if there is none,
+     *         UNKNOWN if stopped before the first
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return stats - counters of the solver over every call
+     */
+    public SolverStats getStats()
+    {
+        return solver.getStats();
+    }
+}
@@ -0,0 +1,36 @@
+package bruteforce;
+
+/**
+ * DAA - ModelSink interface
+ *
+ * Purpose: This interface takes the models found by a ModelEnumerator one
+ * at a time, as soon as each is found. A model is handed over as DIMACS
+ * literals of the variables that are enumerated, so nothing has to be kept
+ * once accept() returns. The enumerator waits for accept() before it looks
+ * for the next model, so a sink that blocks, such as one writing to a full
+ * pipe or putting into a full queue, slows the search down to its own pace
+ * instead of letting models pile up in memory. A sink can be a StreamSink,
+ * which writes to stdout or a file, or any lambda.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public interface ModelSink {
+
+    /**
+     * Takes one model.
+     *
+     * @param literals - value of each enumerated variable as a DIMACS literal
+     * @return true to go on to the next model, false to stop the enumeration
+     */
+    boolean accept(int[] literals);
+
+    /**
+     * Called once after the last model, whether the enumeration finished or
+     * was stopped. Sinks that buffer or own a file flush and close it here.
+     */
+    default void finish()
+    {
+    }
+}
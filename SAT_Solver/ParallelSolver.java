@@ -0,0 +1,277 @@
+package bruteforce;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DAA - ParallelSolver class
+ *
+ * Purpose: This class runs the brute force search on several threads. The
+ * assignments are split up by fixing the first k variables, so each of the
+ * 2^k prefixes is a separate range of the counter. Every prefix is a
+ * ForkJoin task with its own Solver object and assignment. The clauses are
+ * compiled once into a template Solver and every task gets a copy() that
+ * shares the compiled arrays. When one task finds a satisfying assignment it
+ * sets a stop flag shared by the tasks and the other tasks end at their next
+ * check. That flag belongs to this object and is cleared by every solve();
+ * a stop flag given with setStopFlag() is only read, every few milliseconds
+ * while the tasks run. The tasks share one SolverStats object and one start
+ * time, so the SolveLimits hold for the whole search. A task that reaches a
+ * limit also sets the stop flag. With reordering the variable
+ * order is worked out once and shared by all tasks, and the prefix fixes the
+ * variables that got the most significant counter bits. With a checkpoint
+ * directory every task saves and resumes its own prefix range, so a restart
+ * only repeats the work since each range's last checkpoint.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ParallelSolver implements SATEngine {
+    private static final int TASKS_PER_WORKER = 4;     // Extra tasks so threads that finish early get more work
+    private static final long POLL_MILLIS = 10;        // How often the outside stop flag is checked
+
+    private ClauseDatabase database;
+    private int workers;            // Number of threads to use
+    private int prefixBits;         // Number of leading variables fixed per task
+    private Solver template;        // Compiled clauses, copied for every task
+    private AtomicBoolean stop;     // Shared by the tasks, set when one of them ends the search
+    private AtomicBoolean outside;  // Stop flag from setStopFlag(), only read
+    private AtomicReference<boolean[]> found;
+    private SolverStats stats;      // Counters of all tasks added together
+    private SolveLimits limits;
+    private long startTime;         // System.nanoTime() when solve() started
+    private volatile boolean incomplete;    // Set when a task did not finish its prefix
+    private volatile boolean finished;      // true once solve() has run to the end
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables.
+     *
+     * @param f - FileInfo object
+     * @param threads - number of worker threads
+     */
+    public ParallelSolver(FileInfo f, int threads)
+    {
+        this(f.evaluateClauses(), threads);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and picks how many variables to fix
+     * per task.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param threads - number of worker threads
+     */
+    public ParallelSolver(ClauseDatabase db, int threads)
+    {
+        this(db, threads, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables, orders the variables if asked and
+     * picks how many variables to fix per task.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param threads - number of worker threads
+     * @param reordered - true to order the variables by Solver.reorder()
+     */
+    public ParallelSolver(ClauseDatabase db, int threads, boolean reordered)
+    {
+        database = db;
+        template = new Solver(db, reordered ? Solver.reorder(db) : null);
+        workers = threads;
+        stop = new AtomicBoolean();
+        found = new AtomicReference<>();
+        stats = new SolverStats();
+        limits = SolveLimits.NONE;
+
+        // Use the smallest power of two at or above TASKS_PER_WORKER tasks per thread
+        prefixBits = 0;
+        while ((1L << prefixBits) < (long) threads * TASKS_PER_WORKER
+                && prefixBits < Math.min(db.getNumVariables(), 30)) {
+            prefixBits++;
+        }
+    }
+
+    /**
+     * Runs one task for every prefix in a ForkJoinPool and waits for all of
+     * them to finish or stop, checking the outside stop flag while it waits.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        startTime = System.nanoTime();
+        stop.set(outside != null && outside.get());
+        found.set(null);
+        stats = new SolverStats();      // Limits and progress count this solve only
+        incomplete = false;
+        finished = false;
+        ArrayList<PrefixTask> tasks = new ArrayList<>();
+        for (long prefix = 0; prefix < (1L << prefixBits); prefix++) {
+            tasks.add(new PrefixTask(prefix));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            ForkJoinTask<Void> all = pool.submit(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                protected void compute()
+                {
+                    invokeAll(tasks);
+                }
+            });
+            pool.shutdown();
+            try {
+                while (!pool.awaitTermination(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (outside != null && outside.get()) {
+                        stop.set(true);     // Stopped from outside, the tasks end at their next check
+                    }
+                }
+            } catch (InterruptedException e) {
+                stop.set(true);
+                incomplete = true;
+                Thread.currentThread().interrupt();
+                all.quietlyJoin();
+            }
+            all.join();     // Throws what a task threw
+        } finally {
+            pool.shutdown();
+            finished = true;
+        }
+        return found.get() != null;
+    }
+
+    /**
+     * Watches the given flag while the tasks run and stops them once it is
+     * set. The flag is only read, the tasks have a flag of their own.
+     *
+     * @param flag - flag that stops solve() when it is set
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        outside = flag;
+    }
+
+    /**
+     * @param l - limits for the whole search
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * @param dir - directory where every task keeps the checkpoint of its range
+     * @param intervalNanos - nanoseconds between checkpoints of each task
+     */
+    public void setCheckpoint(Path dir, long intervalNanos)
+    {
+        template.setCheckpoint(dir, intervalNanos);
+    }
+
+    /**
+     * @return result - SAT if a task found a model, UNKNOWN if any task was
+     *         stopped before it finished or solve() has not run to the end,
+     *         UNSAT otherwise
+     */
+    public Result getResult()
+    {
+        if (found.get() != null) {
+            return Result.SAT;
+        }
+        return incomplete || !finished ? Result.UNKNOWN : Result.UNSAT;
+    }
+
+    /**
+     * @return progress - part of all assignments that were tried or skipped
+     */
+    public double getProgress()
+    {
+        if (getResult() != Result.UNKNOWN) {
+            return 1;
+        }
+        int n = database.getNumVariables();
+        double covered = (double) stats.getAssignments() + stats.getSkipped();
+        return Math.min(1.0, Math.scalb(covered, -n));
+    }
+
+    /**
+     * @return stats - counters of all tasks added together
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return found.get();
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "parallel";
+    }
+
+    /**
+     * @return workers - number of threads used
+     */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * Task that enumerates the assignments that start with one prefix.
+     */
+    private class PrefixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long prefix;
+
+        PrefixTask(long prefix)
+        {
+            this.prefix = prefix;
+        }
+
+        protected void compute()
+        {
+            if (stop.get()) {
+                incomplete = true;
+                return;
+            }
+            Solver solver = template.copy();
+            solver.fixPrefix(prefixBits, prefix);
+            solver.setStopFlag(stop);
+            solver.setStats(stats);
+            solver.setLimits(limits);
+            if (solver.solve(startTime)) {
+                if (found.compareAndSet(null, solver.getModel())) {
+                    stop.set(true);     // Tell the other tasks to end
+                }
+            } else if (solver.getResult() == Result.UNKNOWN) {
+                incomplete = true;
+                stop.set(true);         // A limit or the outside flag ended this task, end the rest too
+            }
+        }
+    }
+}
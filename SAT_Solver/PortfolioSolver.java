@@ -0,0 +1,244 @@
+package bruteforce;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - PortfolioSolver class
+ *
+ * Purpose: This class races several engines on the same formula, each on a
+ * thread of its own. The engines are all made from one ClauseDatabase, which
+ * none of them changes, so the formula is parsed and compiled only once. The
+ * first engine to give a definite answer (SAT or UNSAT) wins and the stop
+ * flag shared by all engines is set, so the others end at their next check.
+ * That flag belongs to this object and is cleared by every solve(); a stop
+ * flag given with setStopFlag() is only read, every few milliseconds while
+ * the engines run. An engine that ends with UNKNOWN, such as local search
+ * running out of flips, does not stop the others, and neither does a SAT
+ * answer whose model does not satisfy the formula. The winner and the time
+ * each engine ran are kept so the mix of engines can be tuned.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class PortfolioSolver implements SATEngine {
+    private static final long POLL_MILLIS = 10;     // How often the outside stop flag is checked
+
+    private ClauseDatabase database;        // Formula the engines were made from, checks models
+    private ArrayList<SATEngine> engines;   // Engines in the race
+    private ArrayList<String> labels;       // Name of each engine, numbered if it repeats
+    private AtomicBoolean stop;             // Shared by all engines, set when one of them wins
+    private AtomicBoolean outside;          // Stop flag from setStopFlag(), only read
+    private SATEngine winner;               // First engine with a definite answer
+    private LinkedHashMap<String, Long> times;  // Time each engine ran in nanoseconds
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables and gives every engine the shared
+     * stop flag.
+     *
+     * @param db - ClauseDatabase the engines were made from
+     * @param members - engines made from the same formula
+     */
+    public PortfolioSolver(ClauseDatabase db, List<SATEngine> members)
+    {
+        database = db;
+        engines = new ArrayList<>(members);
+        labels = new ArrayList<>();
+        for (SATEngine engine : engines) {
+            String name = engine.getName();
+            int copies = 1;
+            while (labels.contains(copies == 1 ? name : name + "-" + copies)) {
+                copies++;
+            }
+            labels.add(copies == 1 ? name : name + "-" + copies);
+        }
+        times = new LinkedHashMap<>();
+        stop = new AtomicBoolean();
+        for (SATEngine engine : engines) {
+            engine.setStopFlag(stop);
+        }
+    }
+
+    /**
+     * Starts every engine on its own thread and waits until all of them
+     * have ended. The first UNSAT answer or SAT answer with a satisfying
+     * model sets the stop flag, and so does the outside stop flag.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        stop.set(outside != null && outside.get());
+        winner = null;
+        times.clear();
+        long[] ran = new long[engines.size()];
+        ExecutorService pool = Executors.newFixedThreadPool(engines.size(), r -> {
+            Thread t = new Thread(r, "portfolio");
+            t.setDaemon(true);
+            return t;
+        });
+        ExecutorCompletionService<Integer> race = new ExecutorCompletionService<>(pool);
+        try {
+            for (int i = 0; i < engines.size(); i++) {
+                int index = i;
+                race.submit(() -> {
+                    long start = System.nanoTime();
+                    engines.get(index).solve();
+                    ran[index] = System.nanoTime() - start;
+                    return index;
+                });
+            }
+            int done = 0;
+            while (done < engines.size()) {
+                Future<Integer> next = race.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    if (outside != null && outside.get()) {
+                        stop.set(true);     // Stopped from outside
+                    }
+                    continue;
+                }
+                done++;
+                SATEngine engine = engines.get(next.get());
+                if (winner == null && isAnswer(engine)) {
+                    winner = engine;
+                    stop.set(true);     // Tell the other engines to end
+                }
+            }
+        } catch (InterruptedException e) {
+            stop.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            stop.set(true);
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < engines.size(); i++) {
+            times.put(labels.get(i), ran[i]);
+        }
+        return winner != null && winner.getResult() == Result.SAT;
+    }
+
+    /**
+     * @param engine - engine that has ended
+     * @return true if it is UNSAT, or SAT with a model that satisfies the formula
+     */
+    private boolean isAnswer(SATEngine engine)
+    {
+        Result answer = engine.getResult();
+        return answer == Result.UNSAT || (answer == Result.SAT && database.isSatisfiedBy(engine.getModel()));
+    }
+
+    /**
+     * Watches the given flag while the engines run and stops them once it is
+     * set. The flag is only read, the engines share a flag of their own.
+     *
+     * @param flag - flag that stops solve() when it is set
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        outside = flag;
+    }
+
+    /**
+     * @param limits - limits given to every engine
+     */
+    public void setLimits(SolveLimits limits)
+    {
+        for (SATEngine engine : engines) {
+            engine.setLimits(limits);
+        }
+    }
+
+    /**
+     * @return result - answer of the winner, UNKNOWN if no engine gave one
+     */
+    public Result getResult()
+    {
+        return winner == null ? Result.UNKNOWN : winner.getResult();
+    }
+
+    /**
+     * @return model - model found by the winner
+     */
+    public boolean[] getModel()
+    {
+        return winner == null ? null : winner.getModel();
+    }
+
+    /**
+     * @return progress - progress of the winner, or the most any engine covered
+     */
+    public double getProgress()
+    {
+        if (winner != null) {
+            return 1;
+        }
+        double most = 0;
+        for (SATEngine engine : engines) {
+            most = Math.max(most, engine.getProgress());
+        }
+        return most;
+    }
+
+    /**
+     * @return stats - counters of all engines added together
+     */
+    public SolverStats getStats()
+    {
+        SolverStats total = new SolverStats();
+        for (SATEngine engine : engines) {
+            SolverStats s = engine.getStats();
+            total.add(s.getAssignments(), s.getClauseEvaluations(), s.getLiteralsInspected());
+            total.addSkipped(s.getSkipped());
+        }
+        return total;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "portfolio";
+    }
+
+    /**
+     * @return workers - number of threads of all engines together
+     */
+    public int getWorkers()
+    {
+        int total = 0;
+        for (SATEngine engine : engines) {
+            total += engine.getWorkers();
+        }
+        return total;
+    }
+
+    /**
+     * @return winner - name of the engine that answered first, null if none did
+     */
+    public String getWinner()
+    {
+        return winner == null ? null : labels.get(engines.indexOf(winner));
+    }
+
+    /**
+     * @return times - name of each engine and the time it ran in nanoseconds
+     */
+    public LinkedHashMap<String, Long> getTimes()
+    {
+        return new LinkedHashMap<>(times);
+    }
+}
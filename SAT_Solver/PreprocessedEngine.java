@@ -0,0 +1,131 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - PreprocessedEngine class
+ *
+ * Purpose: This class puts a Preprocessor in front of another engine. The
+ * inner engine solves the simplified formula and getModel() extends its
+ * model back to the variables of the original formula. If preprocessing
+ * already found the formula unsatisfiable the inner engine is not run.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class PreprocessedEngine implements SATEngine {
+    private Preprocessor preprocessor;  // Holds the reconstruction stack
+    private SATEngine engine;           // Solves the simplified formula
+    private boolean[] model;
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param pre - Preprocessor that already ran simplify()
+     * @param inner - engine made for the simplified formula
+     */
+    public PreprocessedEngine(Preprocessor pre, SATEngine inner)
+    {
+        preprocessor = pre;
+        engine = inner;
+    }
+
+    /**
+     * Solves the simplified formula with the inner engine.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        if (preprocessor.isUnsatisfiable() || !engine.solve()) {
+            return false;
+        }
+        model = preprocessor.extendModel(engine.getModel());
+        return true;
+    }
+
+    /**
+     * @return model - model of the original formula
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - name of the inner engine
+     */
+    public String getName()
+    {
+        return engine.getName();
+    }
+
+    /**
+     * @return workers - number of threads the inner engine uses
+     */
+    public int getWorkers()
+    {
+        return engine.getWorkers();
+    }
+
+    /**
+     * @return stats - search counters of the inner engine
+     */
+    public SolverStats getStats()
+    {
+        return engine.getStats();
+    }
+
+    /**
+     * @param flag - flag that stops solve() when it is set
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        engine.setStopFlag(flag);
+    }
+
+    /**
+     * @param limits - limits passed on to the inner engine
+     */
+    public void setLimits(SolveLimits limits)
+    {
+        engine.setLimits(limits);
+    }
+
+    /**
+     * @return result - UNSAT if preprocessing refuted the formula, otherwise
+     *         the result of the inner engine
+     */
+    public Result getResult()
+    {
+        return preprocessor.isUnsatisfiable() ? Result.UNSAT : engine.getResult();
+    }
+
+    /**
+     * @return progress - progress of the inner engine
+     */
+    public double getProgress()
+    {
+        return preprocessor.isUnsatisfiable() ? 1 : engine.getProgress();
+    }
+
+    /**
+     * @return engine - the engine that solves the simplified formula
+     */
+    public SATEngine getEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * @return preprocessor - the Preprocessor that simplified the formula
+     */
+    public Preprocessor getPreprocessor()
+    {
+        return preprocessor;
+    }
+}
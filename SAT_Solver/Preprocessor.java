@@ -0,0 +1,589 @@
+package bruteforce;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * DAA - Preprocessor class
+ *
+ * Purpose: This class simplifies a formula before it is given to a solver,
+ * since every variable that is removed halves the work of the brute force
+ * engines. The simplify() method removes tautologies and duplicate clauses,
+ * then repeats these steps until nothing changes: unit propagation, pure
+ * literal elimination, subsumption and self-subsuming resolution, and bounded
+ * variable elimination (a variable is replaced by all the resolvents of its
+ * clauses when that does not add clauses). The variables that are left are
+ * renumbered 1..k so the solver only enumerates those.
+ *
+ * Every assignment and eliminated clause is pushed on a reconstruction
+ * stack with the literal that can fix it (the pivot) first. extendModel()
+ * walks the stack backwards and flips the pivot of any clause that is not
+ * satisfied, which turns a model of the simplified formula into a model of
+ * the original one.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class Preprocessor {
+    private static final int MAX_RESOLVENT_SIZE = 20;   // Longest resolvent allowed when eliminating
+    private static final int MAX_PRODUCT = 400;         // Most resolvent pairs tried for one variable
+    private static final int MAX_SUBSUME_SIZE = 12;     // Longest clause used to subsume others
+
+    private int numVariables;
+    private int originalClauses;
+    private ArrayList<int[]> clauses;           // Clause i, or null once removed
+    private ArrayList<ArrayList<Integer>> occurs;   // Clauses of each literal, may hold removed ones
+    private byte[] value;                       // Fixed value of each variable: 1, -1 or 0
+    private boolean[] eliminated;               // Variables removed by elimination
+    private ArrayList<int[]> stack;             // Reconstruction stack, pivot at index 0
+    private ArrayList<Integer> units;           // Unit literals waiting to be assigned
+    private int[] mark;                         // Marks used by the subset checks
+    private int markStamp;
+    private boolean unsat;
+    private int[] newToOld;                     // Original number of each renumbered variable
+
+    private int remainingClauses;
+    private long simplifyTime;
+
+    /**
+     * Constructor
+     *
+     * Loads the clauses of a formula, sorting their literals and dropping
+     * repeated literals, tautologies and duplicate clauses.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public Preprocessor(ClauseDatabase db)
+    {
+        numVariables = db.getNumVariables();
+        originalClauses = db.getNumClauses();
+        clauses = new ArrayList<>();
+        occurs = new ArrayList<>();
+        for (int i = 0; i < 2 * numVariables + 2; i++) {
+            occurs.add(new ArrayList<>());
+        }
+        value = new byte[numVariables + 1];
+        eliminated = new boolean[numVariables + 1];
+        stack = new ArrayList<>();
+        units = new ArrayList<>();
+        mark = new int[2 * numVariables + 2];
+
+        ClauseView view = db.view();
+        HashSet<List<Integer>> seen = new HashSet<>();
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            view.moveTo(c);
+            int[] copy = new int[view.size()];
+            for (int k = 0; k < copy.length; k++) {
+                copy[k] = view.get(k);
+            }
+            int[] clause = normalize(copy);
+            if (clause != null && seen.add(asList(clause))) {
+                addClause(clause);
+            }
+        }
+    }
+
+    /**
+     * Runs the simplification steps until none of them change the formula,
+     * then renumbers the variables that are left.
+     *
+     * @return database - the simplified formula
+     */
+    public ClauseDatabase simplify()
+    {
+        long start = System.nanoTime();
+        boolean changed = true;
+        while (changed && !unsat) {
+            changed = propagateUnits();
+            changed |= !unsat && eliminatePureLiterals();
+            changed |= !unsat && subsume();
+            changed |= !unsat && eliminateVariables();
+        }
+        ClauseDatabase result = compact();
+        simplifyTime = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Assigns every unit clause and removes or shortens the clauses that
+     * contain the assigned variable.
+     *
+     * @return true if anything was assigned
+     */
+    private boolean propagateUnits()
+    {
+        boolean changed = false;
+        while (!units.isEmpty() && !unsat) {
+            int lit = units.remove(units.size() - 1);
+            int v = Math.abs(lit);
+            if (value[v] != 0) {
+                if ((value[v] > 0) != (lit > 0)) {
+                    unsat = true;   // Both lit and -lit are units
+                }
+                continue;
+            }
+            assign(lit);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Sets a literal true, removes the clauses it satisfies and takes its
+     * negation out of the other clauses.
+     *
+     * @param lit - literal to set true
+     */
+    private void assign(int lit)
+    {
+        value[Math.abs(lit)] = (byte) (lit > 0 ? 1 : -1);
+        stack.add(new int[] {lit});
+        for (int c : occurs(lit)) {
+            removeClause(c);
+        }
+        for (int c : occurs(-lit)) {
+            if (clauses.get(c) != null) {
+                strengthen(c, -lit);
+            }
+        }
+    }
+
+    /**
+     * Assigns every literal whose negation does not appear in any clause.
+     *
+     * @return true if any literal was assigned
+     */
+    private boolean eliminatePureLiterals()
+    {
+        boolean changed = false;
+        for (int v = 1; v <= numVariables; v++) {
+            if (value[v] != 0 || eliminated[v]) {
+                continue;
+            }
+            boolean positive = hasLiveClause(v);
+            boolean negative = hasLiveClause(-v);
+            if (positive != negative) {
+                assign(positive ? v : -v);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes clauses that contain another clause (subsumption) and removes
+     * a literal -l from a clause D when another clause is l plus a subset of
+     * D (self-subsuming resolution).
+     *
+     * @return true if any clause was removed or shortened
+     */
+    private boolean subsume()
+    {
+        boolean changed = false;
+        for (int c = 0; c < clauses.size() && !unsat; c++) {
+            int[] clause = clauses.get(c);
+            if (clause == null || clause.length > MAX_SUBSUME_SIZE) {
+                continue;
+            }
+            markStamp++;
+            for (int lit : clause) {
+                mark[ClauseDatabase.occurrenceIndex(lit)] = markStamp;
+            }
+
+            for (int lit : clause) {
+                // Clauses with lit that hold all of this clause are subsumed
+                for (int d : occurs(lit)) {
+                    if (d != c && missingFrom(clause, clauses.get(d)) == 0) {
+                        removeClause(d);
+                        changed = true;
+                    }
+                }
+                // Clauses with -lit that hold the rest of this clause lose -lit
+                for (int d : occurs(-lit)) {
+                    int[] other = clauses.get(d);
+                    if (other != null && missingFrom(clause, other) == 1) {
+                        strengthen(d, -lit);
+                        changed = true;
+                        if (unsat) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Counts how many literals of the marked clause are not in another
+     * clause. The caller marks the literals of clause before calling.
+     *
+     * @param clause - the marked clause
+     * @param other - clause to check, may be null
+     * @return number of literals of clause missing from other, or a large number
+     */
+    private int missingFrom(int[] clause, int[] other)
+    {
+        if (other == null || other.length < clause.length) {
+            return Integer.MAX_VALUE;
+        }
+        int found = 0;
+        for (int lit : other) {
+            if (mark[ClauseDatabase.occurrenceIndex(lit)] == markStamp) {
+                found++;
+            }
+        }
+        return clause.length - found;
+    }
+
+    /**
+     * Eliminates every variable whose clauses can be replaced by their
+     * resolvents without making the formula bigger.
+     *
+     * @return true if any variable was eliminated
+     */
+    private boolean eliminateVariables()
+    {
+        boolean changed = propagateUnits();
+        for (int v = 1; v <= numVariables && !unsat; v++) {
+            if (value[v] != 0 || eliminated[v]) {
+                continue;
+            }
+            ArrayList<Integer> pos = liveClauses(v);
+            ArrayList<Integer> neg = liveClauses(-v);
+            if (pos.isEmpty() || neg.isEmpty() || pos.size() * neg.size() > MAX_PRODUCT) {
+                continue;   // Pure or unused variables and very common ones are skipped
+            }
+
+            ArrayList<int[]> resolvents = new ArrayList<>();
+            boolean tooBig = false;
+            for (int p = 0; p < pos.size() && !tooBig; p++) {
+                for (int n = 0; n < neg.size() && !tooBig; n++) {
+                    int[] r = resolve(clauses.get(pos.get(p)), clauses.get(neg.get(n)), v);
+                    if (r != null) {
+                        resolvents.add(r);
+                        tooBig = r.length > MAX_RESOLVENT_SIZE
+                                || resolvents.size() > pos.size() + neg.size();
+                    }
+                }
+            }
+            if (tooBig) {
+                continue;
+            }
+
+            // Save the old clauses with v or -v first so extendModel() can fix v
+            for (int c : pos) {
+                stack.add(withPivot(clauses.get(c), v));
+                removeClause(c);
+            }
+            for (int c : neg) {
+                stack.add(withPivot(clauses.get(c), -v));
+                removeClause(c);
+            }
+            eliminated[v] = true;
+            for (int[] r : resolvents) {
+                if (r.length == 0) {
+                    unsat = true;
+                } else {
+                    addClause(r);
+                }
+            }
+            propagateUnits();
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Resolves two clauses on a variable.
+     *
+     * @param a - clause with v
+     * @param b - clause with -v
+     * @param v - variable to resolve on
+     * @return the sorted resolvent, or null if it is a tautology
+     */
+    private static int[] resolve(int[] a, int[] b, int v)
+    {
+        int[] merged = new int[a.length + b.length - 2];
+        int size = 0;
+        for (int lit : a) {
+            if (lit != v) {
+                merged[size++] = lit;
+            }
+        }
+        for (int lit : b) {
+            if (lit != -v) {
+                merged[size++] = lit;
+            }
+        }
+        return normalize(Arrays.copyOf(merged, size));
+    }
+
+    /**
+     * Sorts a clause and removes repeated literals.
+     *
+     * @param clause - literals of a clause
+     * @return the sorted clause, or null if it is a tautology
+     */
+    private static int[] normalize(int[] clause)
+    {
+        Arrays.sort(clause);
+        int size = 0;
+        for (int lit : clause) {
+            if (size > 0 && clause[size - 1] == lit) {
+                continue;
+            }
+            if (Arrays.binarySearch(clause, -lit) >= 0) {
+                return null;
+            }
+            clause[size++] = lit;
+        }
+        return Arrays.copyOf(clause, size);
+    }
+
+    /**
+     * Copies a clause with one literal moved to the front.
+     *
+     * @param clause - the clause
+     * @param pivot - literal to put first
+     * @return the reordered copy
+     */
+    private static int[] withPivot(int[] clause, int pivot)
+    {
+        int[] entry = new int[clause.length];
+        entry[0] = pivot;
+        int size = 1;
+        for (int lit : clause) {
+            if (lit != pivot) {
+                entry[size++] = lit;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Removes a literal from a clause. An empty result means the formula is
+     * unsatisfiable and a unit result is queued for propagation.
+     *
+     * @param c - clause number
+     * @param lit - literal to remove
+     */
+    private void strengthen(int c, int lit)
+    {
+        int[] clause = clauses.get(c);
+        if (Arrays.binarySearch(clause, lit) < 0) {     // Already removed earlier
+            return;
+        }
+        int[] shorter = new int[clause.length - 1];
+        int size = 0;
+        for (int l : clause) {
+            if (l != lit) {
+                shorter[size++] = l;
+            }
+        }
+        clauses.set(c, shorter);
+        if (shorter.length == 0) {
+            unsat = true;
+        } else if (shorter.length == 1) {
+            units.add(shorter[0]);
+        }
+    }
+
+    /**
+     * Adds a clause and its occurrences. Unit clauses are also queued.
+     *
+     * @param clause - sorted clause without repeated literals
+     */
+    private void addClause(int[] clause)
+    {
+        int c = clauses.size();
+        clauses.add(clause);
+        for (int lit : clause) {
+            occurs.get(ClauseDatabase.occurrenceIndex(lit)).add(c);
+        }
+        if (clause.length == 0) {
+            unsat = true;
+        } else if (clause.length == 1) {
+            units.add(clause[0]);
+        }
+    }
+
+    /**
+     * @param c - clause number to remove
+     */
+    private void removeClause(int c)
+    {
+        clauses.set(c, null);
+    }
+
+    /**
+     * @param lit - a literal
+     * @return occurrence list of the literal, which may hold removed clauses
+     */
+    private ArrayList<Integer> occurs(int lit)
+    {
+        return occurs.get(ClauseDatabase.occurrenceIndex(lit));
+    }
+
+    /**
+     * Drops removed clauses and clauses that lost the literal from the
+     * occurrence list of a literal and returns it.
+     *
+     * @param lit - a literal
+     * @return clauses that still contain the literal
+     */
+    private ArrayList<Integer> liveClauses(int lit)
+    {
+        ArrayList<Integer> list = occurs(lit);
+        list.removeIf(c -> clauses.get(c) == null
+                || Arrays.binarySearch(clauses.get(c), lit) < 0);
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * @param lit - a literal
+     * @return true if some clause still contains the literal
+     */
+    private boolean hasLiveClause(int lit)
+    {
+        return !liveClauses(lit).isEmpty();
+    }
+
+    /**
+     * Renumbers the variables still used by clauses to 1..k and builds the
+     * simplified ClauseDatabase.
+     *
+     * @return database - the simplified formula
+     */
+    private ClauseDatabase compact()
+    {
+        if (unsat) {    // A single empty clause over no variables
+            newToOld = new int[1];
+            remainingClauses = 1;
+            return new ClauseDatabase(0, new int[0], new int[] {0, 0});
+        }
+
+        int[] oldToNew = new int[numVariables + 1];
+        int count = 0;
+        int length = 0;
+        remainingClauses = 0;
+        for (int[] clause : clauses) {
+            if (clause == null) {
+                continue;
+            }
+            remainingClauses++;
+            length += clause.length;
+            for (int lit : clause) {
+                if (oldToNew[Math.abs(lit)] == 0) {
+                    oldToNew[Math.abs(lit)] = ++count;
+                }
+            }
+        }
+        newToOld = new int[count + 1];
+        for (int v = 1; v <= numVariables; v++) {
+            if (oldToNew[v] != 0) {
+                newToOld[oldToNew[v]] = v;
+            }
+        }
+
+        int[] literals = new int[length];
+        int[] offsets = new int[remainingClauses + 1];
+        int size = 0;
+        int c = 0;
+        for (int[] clause : clauses) {
+            if (clause != null) {
+                for (int lit : clause) {
+                    literals[size++] = lit > 0 ? oldToNew[lit] : -oldToNew[-lit];
+                }
+                offsets[++c] = size;
+            }
+        }
+        return new ClauseDatabase(count, literals, offsets);
+    }
+
+    /**
+     * Turns a model of the simplified formula into a model of the original
+     * formula. Variables that were not used anywhere are set to false.
+     *
+     * @param reduced - model of the simplified formula, index 0 unused
+     * @return model - model of the original formula
+     */
+    public boolean[] extendModel(boolean[] reduced)
+    {
+        boolean[] model = new boolean[numVariables + 1];
+        for (int v = 1; v < newToOld.length; v++) {
+            model[newToOld[v]] = reduced[v];
+        }
+        for (int i = stack.size() - 1; i >= 0; i--) {
+            int[] entry = stack.get(i);
+            boolean satisfied = false;
+            for (int k = 0; k < entry.length && !satisfied; k++) {
+                satisfied = (entry[k] > 0) == model[Math.abs(entry[k])];
+            }
+            if (!satisfied) {   // Flip the pivot to make the clause true
+                model[Math.abs(entry[0])] = entry[0] > 0;
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Makes the line printed after preprocessing.
+     *
+     * @return report - variables and clauses removed and time taken
+     */
+    public String getReport()
+    {
+        return String.format("Preprocessing removed %d of %d variables and %d of %d clauses in %.1f ms",
+                getRemovedVariables(), numVariables, getRemovedClauses(), originalClauses,
+                simplifyTime / 1e6);
+    }
+
+    /**
+     * @param lits - a clause
+     * @return the clause as a list, used to find duplicates
+     */
+    private static List<Integer> asList(int[] lits)
+    {
+        ArrayList<Integer> list = new ArrayList<>(lits.length);
+        for (int lit : lits) {
+            list.add(lit);
+        }
+        return list;
+    }
+
+    /**
+     * @return unsat - true if preprocessing found the formula unsatisfiable
+     */
+    public boolean isUnsatisfiable()
+    {
+        return unsat;
+    }
+
+    /**
+     * @return number of variables removed by preprocessing
+     */
+    public int getRemovedVariables()
+    {
+        return numVariables - (newToOld.length - 1);
+    }
+
+    /**
+     * @return number of clauses removed by preprocessing
+     */
+    public int getRemovedClauses()
+    {
+        return originalClauses - remainingClauses;
+    }
+
+    /**
+     * @return simplifyTime - time taken by simplify() in nanoseconds
+     */
+    public long getSimplifyTime()
+    {
+        return simplifyTime;
+    }
+}
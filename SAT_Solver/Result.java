@@ -0,0 +1,18 @@
+package bruteforce;
+
+/**
+ * DAA - Result enum
+ *
+ * Purpose: This enum is the outcome of a solve. SAT and UNSAT mean the
+ * search finished, UNKNOWN means it was stopped by its stop flag or by one of
+ * its SolveLimits before it could decide the formula.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public enum Result {
+    SAT,
+    UNSAT,
+    UNKNOWN
+}
@@ -0,0 +1,354 @@
+package bruteforce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DAA - ResultCache class
+ *
+ * Purpose: This class remembers the answers of formulas that were solved
+ * before, so a formula that is sent again is answered without solving it.
+ * The key is a SHA-256 hash of the formula in a canonical form: the literals
+ * of each clause sorted with repeats removed, the clauses sorted with
+ * repeats removed, and the number of variables. Files that hold the same
+ * clauses in another order, with other comments or with literals swapped
+ * around inside a clause get the same key. Variables that were renumbered
+ * are not found, that would take a graph isomorphism test.
+ *
+ * The answers are kept in memory in a map of the most recently used ones,
+ * and if a directory is given also in one small file per key there, so they
+ * last from one run to the next. A file holds a header, the verdict, the
+ * number of variables and the model packed into long words, and is written
+ * to a temporary file that is forced to disk and renamed, like a Checkpoint.
+ * An unsatisfiable formula is stored as a model of length 0.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ResultCache {
+    public static final int DEFAULT_SIZE = 1024;    // Answers kept in memory when no size is given
+
+    private static final int MAGIC = 0x42465243;    // "BFRC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 13;     // Everything before the model words
+    private static final boolean[] UNSAT = new boolean[0];  // Stored for unsatisfiable formulas
+
+    private final LinkedHashMap<String, boolean[]> memory;  // Most recently used answers last
+    private final Path dir;                 // Directory of the answer files, null for none
+    private final AtomicLong hits;          // Lookups that found an answer
+    private final AtomicLong misses;        // Lookups that did not
+
+    /**
+     * Constructor
+     *
+     * Initializes the memory map and the directory.
+     *
+     * @param size - most answers kept in memory
+     * @param directory - directory of the answer files, null to keep them in memory only
+     */
+    public ResultCache(int size, Path directory)
+    {
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, boolean[]> eldest)
+            {
+                return size() > size;
+            }
+        };
+        dir = directory;
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+    }
+
+    /**
+     * Hashes a formula in its canonical form.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return key - SHA-256 of the canonical formula as 64 hex digits
+     */
+    public static String key(ClauseDatabase db)
+    {
+        // Copy every clause with its literals sorted and repeats removed
+        int clauses = db.getNumClauses();
+        int[] lits = new int[db.getLiteralCount()];
+        int[] starts = new int[clauses + 1];
+        ClauseView clause = db.view();
+        int next = 0;
+        for (int i = 0; i < clauses; i++) {
+            clause.moveTo(i);
+            starts[i] = next;
+            for (int k = 0; k < clause.size(); k++) {
+                lits[next + k] = clause.get(k);
+            }
+            Arrays.sort(lits, next, next + clause.size());
+            int end = next;
+            for (int k = next; k < next + clause.size(); k++) {
+                if (k == next || lits[k] != lits[end - 1]) {
+                    lits[end++] = lits[k];
+                }
+            }
+            next = end;
+        }
+        starts[clauses] = next;
+
+        Integer[] order = new Integer[clauses];
+        for (int i = 0; i < clauses; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compareClauses(lits, starts, a, b));
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.putInt(db.getNumVariables());
+        for (int i = 0; i < clauses; i++) {
+            int c = order[i];
+            if (i > 0 && compareClauses(lits, starts, order[i - 1], c) == 0) {
+                continue;   // Same clause twice
+            }
+            if (buffer.remaining() < 4) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+            buffer.putInt(starts[c + 1] - starts[c]);
+            for (int k = starts[c]; k < starts[c + 1]; k++) {
+                if (buffer.remaining() < 4) {
+                    digest.update(buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putInt(lits[k]);
+            }
+        }
+        digest.update(buffer.flip());
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Compares two sorted clauses literal by literal, a shorter clause that
+     * is the start of a longer one coming first.
+     *
+     * @param lits - sorted literals of every clause back to back
+     * @param starts - start of each clause followed by the total length
+     * @param a - first clause
+     * @param b - second clause
+     * @return order - negative, zero or positive like compareTo()
+     */
+    private static int compareClauses(int[] lits, int[] starts, int a, int b)
+    {
+        int lengthA = starts[a + 1] - starts[a];
+        int lengthB = starts[b + 1] - starts[b];
+        int n = Math.min(lengthA, lengthB);
+        for (int k = 0; k < n; k++) {
+            int diff = Integer.compare(lits[starts[a] + k], lits[starts[b] + k]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return Integer.compare(lengthA, lengthB);
+    }
+
+    /**
+     * Looks an answer up in memory and then in the directory.
+     *
+     * @param key - hash of the formula from key()
+     * @return answer - the model, a model of length 0 if the formula is
+     *         unsatisfiable, or null if the formula was not solved before
+     */
+    public boolean[] get(String key)
+    {
+        boolean[] answer;
+        synchronized (memory) {
+            answer = memory.get(key);
+        }
+        if (answer == null && dir != null) {
+            answer = load(file(key));
+            if (answer != null) {
+                synchronized (memory) {
+                    memory.put(key, answer);
+                }
+            }
+        }
+        (answer == null ? misses : hits).incrementAndGet();
+        return answer == null ? null : answer.clone();
+    }
+
+    /**
+     * Stores the answer of a formula. Only SAT with a model and UNSAT are
+     * stored, a search that was stopped has nothing to remember.
+     *
+     * @param key - hash of the formula from key()
+     * @param result - result of the solve
+     * @param model - model found, index 0 unused, ignored unless the result is SAT
+     */
+    public void put(String key, Result result, boolean[] model)
+    {
+        boolean[] answer;
+        if (result == Result.UNSAT) {
+            answer = UNSAT;
+        } else if (result == Result.SAT && model != null) {
+            answer = model.clone();
+        } else {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(key, answer);
+        }
+        if (dir != null) {
+            save(file(key), answer);
+        }
+    }
+
+    /**
+     * Forgets an answer, such as a model that did not satisfy the formula it
+     * was stored for.
+     *
+     * @param key - hash of the formula from key()
+     */
+    public void remove(String key)
+    {
+        synchronized (memory) {
+            memory.remove(key);
+        }
+        if (dir != null) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not remove cached result " + key, e);
+            }
+        }
+    }
+
+    /**
+     * @param key - hash of the formula from key()
+     * @return path - file that holds the answer in the directory
+     */
+    private Path file(String key)
+    {
+        return dir.resolve(key + ".res");
+    }
+
+    /**
+     * Writes an answer to a temporary file, forces it to disk and renames it
+     * over the old file.
+     *
+     * @param path - file to write
+     * @param answer - model, or a model of length 0 for UNSAT
+     */
+    private static void save(Path path, boolean[] answer)
+    {
+        int variables = Math.max(answer.length - 1, 0);
+        int words = answer.length == 0 ? 0 : (variables + 63) / 64;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * words);
+        buffer.putInt(MAGIC).putInt(VERSION).put((byte) (answer.length == 0 ? 0 : 1)).putInt(variables);
+        for (int w = 0; w < words; w++) {
+            long word = 0;
+            for (int b = 0; b < 64 && 64 * w + b < variables; b++) {
+                if (answer[64 * w + b + 1]) {
+                    word |= 1L << b;
+                }
+            }
+            buffer.putLong(word);
+        }
+        buffer.flip();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save cached result " + path, e);
+        }
+    }
+
+    /**
+     * Reads an answer file.
+     *
+     * @param path - file to read
+     * @return answer - model, a model of length 0 for UNSAT, or null if there
+     *         is no good file
+     */
+    private static boolean[] load(Path path)
+    {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read cached result " + path, e);
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        boolean sat = buffer.get() != 0;
+        int variables = buffer.getInt();
+        if (!sat) {
+            return UNSAT;
+        }
+        if (variables < 0 || buffer.remaining() != 8L * ((variables + 63) / 64)) {
+            return null;    // Cut short
+        }
+        boolean[] model = new boolean[variables + 1];
+        for (int w = 0; 64 * w < variables; w++) {
+            long word = buffer.getLong();
+            for (int b = 0; b < 64 && 64 * w + b < variables; b++) {
+                model[64 * w + b + 1] = (word >>> b & 1) != 0;
+            }
+        }
+        return model;
+    }
+
+    /**
+     * @return hits - holds number of lookups that found an answer
+     */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * @return misses - holds number of lookups that did not find an answer
+     */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * @return hitRate - part of the lookups that found an answer, 0 if there were none
+     */
+    public double getHitRate()
+    {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+}
@@ -0,0 +1,93 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - SATEngine interface
+ *
+ * Purpose: This interface is implemented by every solver class so that
+ * Main can pick which one to run on a file. solve() tests the formula and
+ * returns if it is satisfiable or not, getModel() returns the satisfying
+ * assignment that was found. getResult() tells an unsatisfiable formula
+ * apart from a search that was stopped early.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public interface SATEngine {
+
+    /**
+     * Tests the formula for satisfiability.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    boolean solve();
+
+    /**
+     * Returns the satisfying assignment found by the last call to solve().
+     * Index 0 is unused, index i holds the value of variable i.
+     *
+     * @return model - boolean array of variable values, or null if none found
+     */
+    boolean[] getModel();
+
+    /**
+     * @return name - short name of the engine used in output
+     */
+    String getName();
+
+    /**
+     * @return result - SAT, UNSAT, or UNKNOWN if the last solve() was stopped
+     *         by its stop flag or limits before it finished
+     */
+    Result getResult();
+
+    /**
+     * Gives the engine a flag that another thread can set to make solve()
+     * return early. The flag is the cancellation token of the engine: it is
+     * read only every few thousand steps, so checking it costs almost
+     * nothing. solve() returns false when it stops this way and getResult()
+     * is UNKNOWN. Engines that do not support stopping ignore the flag.
+     *
+     * @param flag - flag that stops solve() when it is set
+     */
+    default void setStopFlag(AtomicBoolean flag)
+    {
+    }
+
+    /**
+     * Sets the time, assignment and memory limits of solve(). Engines that
+     * do not support limits ignore them.
+     *
+     * @param limits - SolveLimits object
+     */
+    default void setLimits(SolveLimits limits)
+    {
+    }
+
+    /**
+     * @return progress - part of the search space covered by the last
+     *         solve(), from 0 to 1, or 0 if the engine cannot tell
+     */
+    default double getProgress()
+    {
+        return getResult() == Result.UNKNOWN ? 0 : 1;
+    }
+
+    /**
+     * @return stats - search counters of the engine, all zero if it does not count
+     */
+    default SolverStats getStats()
+    {
+        return new SolverStats();
+    }
+
+    /**
+     * @return workers - number of threads the engine uses
+     */
+    default int getWorkers()
+    {
+        return 1;
+    }
+}
@@ -0,0 +1,86 @@
+package bruteforce;
+
+/**
+ * DAA - SolveLimits class
+ *
+ * Purpose: This class holds the limits a solve has to stay within: time in
+ * milliseconds, number of assignments tried and memory used in bytes. A
+ * limit of 0 means there is no limit. Engines call isReached() at the same
+ * place they check their stop flag, which is only every few thousand
+ * assignments, so the limits cost almost nothing and may be passed by up to
+ * one check interval. An engine that reaches a limit ends with
+ * Result.UNKNOWN.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolveLimits {
+    public static final SolveLimits NONE = new SolveLimits(0, 0, 0);    // No limits at all
+
+    private long timeLimit;         // Holds the time limit in milliseconds
+    private long maxAssignments;    // Holds the most assignments to try
+    private long maxMemory;         // Holds the most heap memory to use in bytes
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param millis - time limit in milliseconds, 0 for none
+     * @param assignments - most assignments to try, 0 for none
+     * @param memory - most heap memory to use in bytes, 0 for none
+     */
+    public SolveLimits(long millis, long assignments, long memory)
+    {
+        timeLimit = millis;
+        maxAssignments = assignments;
+        maxMemory = memory;
+    }
+
+    /**
+     * Checks the limits.
+     *
+     * @param startTime - System.nanoTime() when the solve started
+     * @param assignments - assignments tried so far
+     * @return true if any limit has been reached
+     */
+    public boolean isReached(long startTime, long assignments)
+    {
+        if (maxAssignments > 0 && assignments >= maxAssignments) {
+            return true;
+        }
+        if (timeLimit > 0 && System.nanoTime() - startTime >= timeLimit * 1000000L) {
+            return true;
+        }
+        if (maxMemory > 0) {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory() > maxMemory;
+        }
+        return false;
+    }
+
+    /**
+     * @return timeLimit - holds the time limit in milliseconds, 0 for none
+     */
+    public long getTimeLimit()
+    {
+        return timeLimit;
+    }
+
+    /**
+     * @return maxAssignments - holds the most assignments to try, 0 for none
+     */
+    public long getMaxAssignments()
+    {
+        return maxAssignments;
+    }
+
+    /**
+     * @return maxMemory - holds the most heap memory to use in bytes, 0 for none
+     */
+    public long getMaxMemory()
+    {
+        return maxMemory;
+    }
+}
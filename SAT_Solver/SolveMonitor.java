@@ -0,0 +1,336 @@
+package bruteforce;
+
+import java.io.PrintStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * DAA - SolveMonitor class
+ *
+ * Purpose: This class shows how a running solve is doing while it runs.
+ * Main and BatchRunner make one for every file, set its phase as the file is
+ * parsed, compiled and solved, and close it when the file is done. Nothing is
+ * counted here: every value is read when it is asked for from the engine's
+ * getProgress() and its SolverStats, whose striped counters the engines add
+ * to every few thousand steps, so watching a solve costs the search nothing.
+ *
+ * register() publishes the monitor as an MBean named
+ * bruteforce:type=SolveMonitor,file=...,id=N on the platform MBean server,
+ * so JConsole or any JMX client can read the rate, the part of the search
+ * space covered, the ETA, the phase, the heap use and its peak, and the
+ * off-heap memory of direct and mapped buffers that hold ClauseArenas.
+ * startReporting() also prints the same values as one line on stderr every
+ * few seconds.
+ *
+ * The heap peaks are kept by the JVM for the whole process, so they can only
+ * be counted from the start of a file when no other file is being solved.
+ * A monitor made while no other one is open resets them; a monitor that is
+ * open at the same time as another one, as in batch or daemon mode with
+ * more than one worker, leaves them alone and its peak is that of the whole
+ * process, which isPeakShared() tells.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolveMonitor implements SolveMonitorMBean, AutoCloseable {
+    private static final AtomicLong IDS = new AtomicLong();    // Keeps MBean names unique
+    private static ScheduledExecutorService reporter;   // Prints the progress lines of all monitors
+    private static final Set<SolveMonitor> OPEN = ConcurrentHashMap.newKeySet();    // Monitors not closed yet
+
+    private final String fileName;
+    private final long id;
+    private final long openTime;        // System.nanoTime() when the monitor was made
+    private volatile String phase;
+    private volatile SATEngine engine;  // Engine being watched, null until solving starts
+    private volatile long solveStart;   // System.nanoTime() when solving started
+    private ObjectName name;            // Name the MBean was registered under, null if it was not
+    private ScheduledFuture<?> report;  // Progress line task, null if not reporting
+    private volatile boolean peakShared;    // true once another monitor was open at the same time
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables. The phase starts as parsing. Resets
+     * the heap peaks if no other monitor is open, otherwise marks this
+     * monitor and the open ones as sharing them.
+     *
+     * @param fileName - file being solved
+     */
+    public SolveMonitor(String fileName)
+    {
+        this.fileName = fileName;
+        id = IDS.incrementAndGet();
+        openTime = System.nanoTime();
+        phase = "parsing";
+        synchronized (OPEN) {
+            if (OPEN.isEmpty()) {
+                for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                    if (pool.getType() == MemoryType.HEAP) {
+                        pool.resetPeakUsage();  // Peaks count from the start of this file
+                    }
+                }
+            } else {
+                peakShared = true;
+                for (SolveMonitor other : OPEN) {
+                    other.peakShared = true;
+                }
+            }
+            OPEN.add(this);
+        }
+    }
+
+    /**
+     * Registers the monitor on the platform MBean server.
+     */
+    public void register()
+    {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            name = new ObjectName("bruteforce:type=SolveMonitor,file=" + ObjectName.quote(fileName)
+                    + ",id=" + id);
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new RuntimeException("Could not register monitor for " + fileName, e);
+        }
+    }
+
+    /**
+     * Prints a progress line on stderr every interval until the monitor is
+     * closed.
+     *
+     * @param seconds - seconds between lines
+     * @param err - stream to print to
+     */
+    public void startReporting(long seconds, PrintStream err)
+    {
+        report = reporter().scheduleAtFixedRate(() -> err.println(progressLine()),
+                seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return reporter - daemon thread shared by all monitors, made the first time it is needed
+     */
+    private static synchronized ScheduledExecutorService reporter()
+    {
+        if (reporter == null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "progress");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return reporter;
+    }
+
+    /**
+     * @return line - phase, progress, rate, ETA and heap use on one line
+     */
+    public String progressLine()
+    {
+        double eta = getEtaSeconds();
+        String name = getEngine();
+        return String.format("[%s] %s %s %.4f%% %.0f assignments/s ETA %s heap %d MB off-heap %d MB",
+                fileName, phase, name.isEmpty() ? "-" : name, getProgress() * 100,
+                getAssignmentsPerSecond(), eta < 0 ? "unknown" : String.format("%.3gs", eta),
+                getHeapUsedBytes() >> 20, getOffHeapBytes() >> 20);
+    }
+
+    /**
+     * @param p - phase the file is in
+     */
+    public void setPhase(String p)
+    {
+        phase = p;
+    }
+
+    /**
+     * Starts watching an engine and sets the phase to solving.
+     *
+     * @param e - engine that is about to solve the file
+     */
+    public void setEngine(SATEngine e)
+    {
+        solveStart = System.nanoTime();
+        engine = e;
+        phase = "solving";
+    }
+
+    /**
+     * Stops the progress line and unregisters the MBean.
+     */
+    public void close()
+    {
+        phase = "done";
+        OPEN.remove(this);
+        if (report != null) {
+            report.cancel(false);
+        }
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                throw new RuntimeException("Could not unregister monitor for " + fileName, e);
+            }
+            name = null;
+        }
+    }
+
+    /**
+     * @return fileName - holds the file being solved
+     */
+    public String getFileName()
+    {
+        return fileName;
+    }
+
+    /**
+     * @return engine - name of the engine, empty until solving starts
+     */
+    public String getEngine()
+    {
+        SATEngine e = engine;
+        return e == null ? "" : e.getName();
+    }
+
+    /**
+     * @return phase - parsing, compiling, solving or done
+     */
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return elapsedMillis - time since the monitor was made in milliseconds
+     */
+    public long getElapsedMillis()
+    {
+        return (System.nanoTime() - openTime) / 1000000;
+    }
+
+    /**
+     * @return assignments - assignments the engine tried so far
+     */
+    public long getAssignments()
+    {
+        SATEngine e = engine;
+        return e == null ? 0 : e.getStats().getAssignments();
+    }
+
+    /**
+     * @return assignmentsPerSecond - assignments tried per second since solving started
+     */
+    public double getAssignmentsPerSecond()
+    {
+        SATEngine e = engine;
+        double seconds = (System.nanoTime() - solveStart) / 1e9;
+        return e == null || seconds <= 0 ? 0 : e.getStats().getAssignments() / seconds;
+    }
+
+    /**
+     * @return progress - part of the search space the engine covered, 0 before solving
+     */
+    public double getProgress()
+    {
+        SATEngine e = engine;
+        return e == null ? 0 : e.getProgress();
+    }
+
+    /**
+     * Assumes the rest of the search space is covered at the same speed
+     * as the part covered so far.
+     *
+     * @return etaSeconds - estimated seconds left, -1 if the engine cannot tell
+     */
+    public double getEtaSeconds()
+    {
+        double progress = getProgress();
+        if (progress >= 1) {
+            return 0;
+        }
+        if (progress <= 0) {
+            return -1;      // Nothing covered yet, or an engine that cannot tell
+        }
+        double seconds = (System.nanoTime() - solveStart) / 1e9;
+        return seconds * (1 - progress) / progress;
+    }
+
+    /**
+     * @return heapUsedBytes - heap memory in use
+     */
+    public long getHeapUsedBytes()
+    {
+        return heap().getUsed();
+    }
+
+    /**
+     * Adds the peaks of the heap pools. The pools peak at different times,
+     * so this can be a little more than the heap ever held at once.
+     *
+     * @return peakHeapBytes - most heap memory used since the monitor was
+     *         made, or by the whole process if isPeakShared()
+     */
+    public long getPeakHeapBytes()
+    {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * @return peakShared - true if another file was solved while this
+     *         monitor was open, so getPeakHeapBytes() is process-wide
+     */
+    public boolean isPeakShared()
+    {
+        return peakShared;
+    }
+
+    /**
+     * @return offHeapBytes - memory held by direct and mapped buffers
+     */
+    public long getOffHeapBytes()
+    {
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            used += pool.getMemoryUsed();
+        }
+        return used;
+    }
+
+    /**
+     * @return heapMaxBytes - most heap memory the JVM will use, -1 if not set
+     */
+    public long getHeapMaxBytes()
+    {
+        return heap().getMax();
+    }
+
+    /**
+     * @return usage - current heap memory usage of the JVM
+     */
+    private static MemoryUsage heap()
+    {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        return memory.getHeapMemoryUsage();
+    }
+}
@@ -0,0 +1,84 @@
+package bruteforce;
+
+/**
+ * DAA - SolveMonitorMBean interface
+ *
+ * Purpose: This interface is the management interface of SolveMonitor. JMX
+ * finds the attributes of a standard MBean from the getters of an interface
+ * named after the class with MBean added, so every getter here shows up as
+ * a read-only attribute in JConsole or any other JMX client.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public interface SolveMonitorMBean {
+
+    /**
+     * @return fileName - file being solved
+     */
+    String getFileName();
+
+    /**
+     * @return engine - name of the engine, empty until solving starts
+     */
+    String getEngine();
+
+    /**
+     * @return phase - parsing, compiling, solving or done
+     */
+    String getPhase();
+
+    /**
+     * @return elapsedMillis - time since the file was opened in milliseconds
+     */
+    long getElapsedMillis();
+
+    /**
+     * @return assignments - assignments tried so far
+     */
+    long getAssignments();
+
+    /**
+     * @return assignmentsPerSecond - assignments tried per second of solving
+     */
+    double getAssignmentsPerSecond();
+
+    /**
+     * @return progress - part of the search space covered, from 0 to 1
+     */
+    double getProgress();
+
+    /**
+     * @return etaSeconds - estimated seconds until the search space is
+     *         covered, -1 if the engine cannot tell
+     */
+    double getEtaSeconds();
+
+    /**
+     * @return heapUsedBytes - heap memory in use
+     */
+    long getHeapUsedBytes();
+
+    /**
+     * @return peakHeapBytes - most heap memory used since the monitor was
+     *         made, or by the whole process if isPeakShared()
+     */
+    long getPeakHeapBytes();
+
+    /**
+     * @return peakShared - true if another file was solved at the same time,
+     *         so the peak is of the whole process
+     */
+    boolean isPeakShared();
+
+    /**
+     * @return offHeapBytes - memory held by direct and mapped buffers, such as a ClauseArena
+     */
+    long getOffHeapBytes();
+
+    /**
+     * @return heapMaxBytes - most heap memory the JVM will use, -1 if not set
+     */
+    long getHeapMaxBytes();
+}
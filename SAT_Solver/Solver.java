@@ -1,131 +1,551 @@
 package bruteforce;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DAA - Solver class
  *
- * Purpose: This class contains a FileInfo object, an Arraylist of String arrays,
- * and a HashMap<integer, Boolean>. The constructor initializes the instance objects.
- * The method setBoolValues() sets possible assignments of the HashMap values using
- * a binary addition method. The solve() method contains loops to test the value of
- * the clauses in the formula with possible assignments and returns if a formula is
- * satisfiable or not.
+ * Purpose: This class contains a ClauseDatabase holding the formula as int
+ * arrays and a bitset (long array) holding the current assignment of the
+ * variables. The constructor initializes the instance variables and turns every
+ * literal into the bit it reads. The method setBoolValues() sets possible
+ * assignments of the bitset using a binary addition method. The solve() method
+ * contains loops to test the value of the clauses in the formula with possible
+ * assignments and returns if a formula is satisfiable or not. getModel()
+ * returns the assignment that satisfied the formula.
+ *
+ * Variable 1 is the most significant bit of the counter and the last variable
+ * is the least significant bit, so the assignments are tried in the same order
+ * as before: all false first and all true last.
+ *
+ * When a clause is false, every assignment that leaves its variables alone
+ * keeps it false. The next assignment in counter order that changes one of
+ * them is found by rounding the counter up past the lowest counter bit in the
+ * clause, which is the clause's highest numbered variable, so solve() jumps
+ * there with skipPast() instead of adding 1. The assignments jumped over are
+ * counted as skipped. The search stays exhaustive and still finds the same
+ * first satisfying assignment.
+ *
+ * With reordering turned on the counter bits are given to the variables by
+ * how often their clauses are expected to be false (short clauses first, as
+ * in the Jeroslow-Wang score), highest score on the most significant bits.
+ * A clause made of such variables has its lowest bit high up in the counter,
+ * so each jump over it skips a large block of assignments.
+ *
+ * With setCheckpoint() the counter and the counts so far are saved to a
+ * Checkpoint file every so often, when the search is stopped and when the
+ * range is finished. solve() then starts from the saved counter instead of
+ * all false, and counts the assignments covered before the restart as
+ * skipped.
+ *
+ * fixPrefix() can hold the first variables at fixed values so that only the
+ * rest are enumerated, which is how ParallelSolver splits up the work. A stop
+ * flag set by another thread and the SolveLimits are checked every few
+ * thousand assignments, and getResult() is UNKNOWN if either ended the
+ * search.
  *
  * @author Anwara Era
- * @version 2-27-23
+ * @version 10-18-26
  */
 
-public class Solver {
-    private FileInfo file;
-    private ArrayList<String[]> clauseList;
-    private HashMap<Integer, Boolean> variableValues;
+public class Solver implements SATEngine {
+    private static final int STOP_CHECK_MASK = 0xFFF;  // Check the stop flag every 4096 assignments
+
+    private int numVariables;
+    private int freeBits;           // Number of low counter bits that are enumerated
+    private int[] offsets;          // Start of each clause in literalBits
+    private int[] literalBits;      // Bit index of each literal shifted left once, low bit set if negated
+    private int[] lowestBit;        // Lowest counter bit of each clause's variables
+    private int[] bitOf;            // Counter bit of each variable
+    private long[] variableValues;  // Current assignment, bit (numVariables - v) holds variable v
+    private boolean[] model;
+    private AtomicBoolean stop;     // Set by another thread to end the search early
+    private SolverStats stats;      // Search counters
+    private SolveLimits limits;     // Time, assignment and memory limits
+    private volatile Result result; // Outcome of the last solve()
+    private long fixedPrefix;       // Values of the counter bits held by fixPrefix()
+    private Path checkpointDir;     // Directory of checkpoint files, null for none
+    private long checkpointInterval;    // Nanoseconds between checkpoints
+    private long checkpointKey;     // Hash of the formula and variable order
 
     /**
      * Constructor
      *
-     * Initializes instance variables. Fills HashMap values to false.
+     * Initializes instance variables. Sets all variables to false.
      *
      * @param f - FileInfo object
      */
     public Solver(FileInfo f)
     {
-        file = f;
-        clauseList = file.evaluateClauses();
-        variableValues = new HashMap<>();
-        for (int i = 1; i <= file.getNumVariables(); i++)
-        {
-            // Initialize all variables with false/0 values
-            variableValues.put(i, false);
+        this(f.evaluateClauses());
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables from a compiled formula. Sets all
+     * variables to false.
+     *
+     * @param db - ClauseDatabase holding the formula
+     */
+    public Solver(ClauseDatabase db)
+    {
+        this(db, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables from a compiled formula, with the
+     * counter bits given to the variables in the usual order or by
+     * reorder(). Sets all variables to false.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param reordered - true to order the variables by reorder()
+     */
+    public Solver(ClauseDatabase db, boolean reordered)
+    {
+        this(db, reordered ? reorder(db) : null);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables with a given counter bit for each
+     * variable, so the tasks of ParallelSolver can share one ordering.
+     * Sets all variables to false.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @param bits - counter bit of each variable from reorder(), or null
+     *        for the usual order
+     */
+    public Solver(ClauseDatabase db, int[] bits)
+    {
+        numVariables = db.getNumVariables();
+        offsets = db.copyOffsets();
+        bitOf = bits != null ? bits : new int[numVariables + 1];
+        if (bits == null) {
+            for (int v = 1; v <= numVariables; v++) {
+                bitOf[v] = numVariables - v;
+            }
+        }
+        IntBuffer literals = db.literalBuffer();    // Read where they are, an arena's stay off the heap
+        literalBits = new int[literals.limit()];
+        for (int k = 0; k < literalBits.length; k++) {
+            int literal = literals.get(k);
+            literalBits[k] = (bitOf[Math.abs(literal)] << 1) | (literal < 0 ? 1 : 0);
+        }
+        lowestBit = new int[offsets.length - 1];
+        for (int i = 0; i < lowestBit.length; i++) {
+            lowestBit[i] = Integer.MAX_VALUE;   // Stays there for an empty clause
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                lowestBit[i] = Math.min(lowestBit[i], literalBits[k] >>> 1);
+            }
         }
+        variableValues = new long[(numVariables + 63) / 64];
+        freeBits = numVariables;
+        stats = new SolverStats();
+        limits = SolveLimits.NONE;
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables as a copy of another Solver. The
+     * compiled clauses and the checkpoint settings are read only and shared,
+     * so the copy costs only a new assignment. Sets all variables to false.
+     *
+     * @param template - Solver to copy
+     */
+    private Solver(Solver template)
+    {
+        numVariables = template.numVariables;
+        offsets = template.offsets;
+        literalBits = template.literalBits;
+        lowestBit = template.lowestBit;
+        bitOf = template.bitOf;
+        checkpointDir = template.checkpointDir;
+        checkpointInterval = template.checkpointInterval;
+        checkpointKey = template.checkpointKey;
+        variableValues = new long[(numVariables + 63) / 64];
+        freeBits = numVariables;
+        stats = new SolverStats();
+        limits = SolveLimits.NONE;
+    }
+
+    /**
+     * Makes a Solver for the same formula and variable order without
+     * compiling the clauses again, which is how the tasks of ParallelSolver
+     * are made. The copy has its own assignment, prefix, stop flag, stats and
+     * limits.
+     *
+     * @return solver - new Solver sharing this one's compiled clauses
+     */
+    public Solver copy()
+    {
+        return new Solver(this);
+    }
+
+    /**
+     * Holds the first variables at the values given by a prefix and resets
+     * the other variables to false. Only the other variables are enumerated
+     * after this.
+     *
+     * @param count - number of leading variables to fix
+     * @param prefix - their values, the highest of the count bits is variable 1
+     */
+    public void fixPrefix(int count, long prefix)
+    {
+        Arrays.fill(variableValues, 0);
+        freeBits = numVariables - count;
+        fixedPrefix = prefix;
+        for (int i = 0; i < count; i++) {
+            if (((prefix >>> i) & 1) != 0) {
+                int bit = freeBits + i;
+                variableValues[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Gives the counter bits to the variables by score. Each clause adds
+     * 2^-length to the score of its variables, so variables of short clauses,
+     * which are false most often, get the most significant bits. Variables
+     * with the same score keep their usual order.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return bitOf - counter bit of each variable, index 0 unused
+     */
+    public static int[] reorder(ClauseDatabase db)
+    {
+        int n = db.getNumVariables();
+        ClauseView clause = db.view();
+        double[] score = new double[n + 1];
+        for (int i = 0; i < db.getNumClauses(); i++) {
+            clause.moveTo(i);
+            double weight = Math.scalb(1.0, -clause.size());
+            for (int k = 0; k < clause.size(); k++) {
+                score[Math.abs(clause.get(k))] += weight;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int v = 1; v <= n; v++) {
+            order[v - 1] = v;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(score[b], score[a]));  // Stable, so ties keep their order
+        int[] bits = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            bits[order[i]] = n - 1 - i;
+        }
+        return bits;
+    }
+
+    /**
+     * @param flag - flag that stops solve() when another thread sets it
+     */
+    public void setStopFlag(AtomicBoolean flag)
+    {
+        stop = flag;
+    }
+
+    /**
+     * @param l - limits checked together with the stop flag
+     */
+    public void setLimits(SolveLimits l)
+    {
+        limits = l;
+    }
+
+    /**
+     * Saves the search position in the given directory every interval
+     * and resumes from it in solve(). The file name holds a hash of the
+     * formula, so any number of formulas can share one directory.
+     *
+     * @param dir - directory of checkpoint files
+     * @param intervalNanos - nanoseconds between checkpoints
+     */
+    public void setCheckpoint(Path dir, long intervalNanos)
+    {
+        checkpointDir = dir;
+        checkpointInterval = intervalNanos;
+        checkpointKey = Checkpoint.hash(numVariables, offsets, literalBits);
+    }
+
+    /**
+     * @return path - checkpoint file of this formula and prefix
+     */
+    private Path checkpointFile()
+    {
+        return Checkpoint.file(checkpointDir, checkpointKey, numVariables - freeBits, fixedPrefix);
     }
 
     /**
-     * Does binary addition to boolean values in the Hashmap to assign all
-     * possible assignments of true/false values. Checks Hashmap values to
-     * see if there are more possible assignments left. If all values are true,
-     * no more possible assignments.
+     * Saves the current counter and the counts so far.
+     *
+     * @param finished - true if the range was searched without a model
+     * @param tried - assignments tried so far, over all runs
+     * @param skipped - assignments skipped so far, over all runs
+     */
+    private void saveCheckpoint(boolean finished, long tried, long skipped)
+    {
+        new Checkpoint(checkpointKey, numVariables, numVariables - freeBits, fixedPrefix, finished,
+                tried, skipped, variableValues.clone()).save(checkpointFile());
+    }
+
+    /**
+     * @param a - count
+     * @param b - count
+     * @return sum - a + b, or Long.MAX_VALUE if that does not fit
+     */
+    private static long addCounts(long a, long b)
+    {
+        return b > Long.MAX_VALUE - a ? Long.MAX_VALUE : a + b;
+    }
+
+    /**
+     * Does binary addition on the bitset to assign all possible assignments
+     * of true/false values. When the addition carries out of the last bit,
+     * every assignment has been tried.
      *
      * @return continueLoop - value to tell if there are any more assignments left
      */
     public boolean setBoolValues()
     {
-        int carry = 0;
-        if(variableValues.get(variableValues.size())) {     // Checks last value in hashmap first
-            variableValues.put(variableValues.size(), false);   // If true, set to false and carry=1
-            carry = 1;
-        } else
-            variableValues.put(variableValues.size(), true);
-
-        for(int i = variableValues.size()-1; i > 0; i--) {  // Iterate through all other hashmap values
-            if (carry == 1) {
-                if(variableValues.get(i)) {
-                    variableValues.put(i, false);
+        for (int w = 0; 64 * w < freeBits; w++) {
+            int bits = Math.min(64, freeBits - 64 * w);     // Enumerated bits in this word
+            if (bits == 64) {
+                variableValues[w]++;
+                if (variableValues[w] != 0) {   // No carry into the next word
+                    return true;
                 }
-                else {
-                    variableValues.put(i, true);
-                    carry = 0;
-                }
-            } else          // Once carry!=1, other hashmap values don't need to be changed
-                break;
+            } else {
+                long mask = (1L << bits) - 1;
+                long low = (variableValues[w] + 1) & mask;
+                variableValues[w] = (variableValues[w] & ~mask) | low;
+                return low != 0;    // Zero means it carried past the last free bit
+            }
         }
+        return false;   // Carried out of the last word
+    }
 
-        boolean continueLoop = false;   // Check to see if all values are true, when they are then no more assignments
-        for(int i = 1; i <= variableValues.size(); i++) {
-            if(!variableValues.get(i)) {
-                continueLoop = true;
-                break;
-            }
+    /**
+     * Moves the counter to the next assignment that changes a bit at or
+     * above the given bit: sets every bit below it to 1 and adds 1, so the
+     * carry clears them and changes the given bit or one above it.
+     *
+     * @param bit - lowest counter bit that has to change
+     * @return continueLoop - value to tell if there are any more assignments left
+     */
+    public boolean skipPast(int bit)
+    {
+        if (bit >= freeBits) {  // Only fixed bits can change it, so nothing is left here
+            return false;
         }
-        return continueLoop;
+        for (int w = 0; 64 * w < bit; w++) {
+            int bits = Math.min(64, bit - 64 * w);
+            variableValues[w] |= bits == 64 ? -1L : (1L << bits) - 1;
+        }
+        return setBoolValues();
+    }
+
+    /**
+     * @param bit - a counter bit below 63
+     * @return number of assignments skipPast(bit) jumps over
+     */
+    private long skipCount(int bit)
+    {
+        if (bit >= 63) {
+            return Long.MAX_VALUE;
+        }
+        long below = (1L << bit) - 1;
+        return below - (variableValues[0] & below);
     }
 
     /**
      * Contains while loop to go through all possible assignments. Inner loop
      * goes through each clause in the formula. Loop inside of that goes through
-     * each of the variables in each clause. If a variable is found to be true,
+     * each of the literals in each clause. If a literal is found to be true,
      * the loop is broken out of and the clause is determined to be true. If a
-     * clause evaulated to false, the second loop is broken out of and a call to
-     * setBoolValues() is made to set the next assignment.
+     * clause evaluated to false, the second loop is broken out of and a call to
+     * skipPast() jumps to the next assignment that changes that clause.
      *
      * @return truthValue - holds whether formula is satisfiable or not
      */
     public boolean solve()
     {
-        boolean truthValue = false;
-        boolean continueLoop = true;
+        return solve(System.nanoTime());
+    }
 
-        while(continueLoop) {   // Loops through all possible assignments
-            for(int i = 0; i < clauseList.size(); i++) {    // Loops through each clause in formula
-                String[] singleClause = clauseList.get(i);
-                truthValue = false;
-                for(int j = 0; j < singleClause.length; j++) {  // Loops through all variables in clause
-                    if(singleClause[j] == "") {     // Empty clauses evaluate to true
-                        truthValue = true;
-                        break;
-                    }
+    /**
+     * Same as solve(), but the time limit is counted from a given start
+     * time, so tasks of a ParallelSolver share one clock.
+     *
+     * @param startTime - System.nanoTime() when the solve started
+     * @return truthValue - holds whether formula is satisfiable or not
+     */
+    public boolean solve(long startTime)
+    {
+        int numClauses = offsets.length - 1;
+        boolean truthValue;
+        long tried = 0;         // Counters kept in locals and added to stats at every check
+        long reported = 0;
+        long clauses = 0;
+        long literals = 0;
+        long skipped = 0;
+        long skippedTotal = 0;  // Skipped in this run, for checkpoints
+        long resumedTried = 0;  // Counts of the runs before a restart
+        long resumedSkipped = 0;
+        long lastCheckpoint = System.nanoTime();
+        int falseClause = -1;
+        model = null;
+        result = Result.UNKNOWN;    // Until the search ends, so getProgress() stays live
+        fixPrefix(numVariables - freeBits, fixedPrefix);    // Start of the range, not where the last solve() ended
 
-                    int variable = Integer.parseInt(singleClause[j]);   // Turn string variable to int
-                    if(variable < 0) {  // Check if it's negative and evaluate
-                        variable *= -1;
-                        truthValue = (truthValue || !variableValues.get(variable));
-                    }
-                    else {
-                        truthValue = (truthValue || variableValues.get(variable));
+        if (checkpointDir != null) {
+            Checkpoint saved = Checkpoint.load(checkpointFile(), checkpointKey, numVariables - freeBits, fixedPrefix);
+            if (saved != null) {    // Go on from where the last run stopped
+                resumedTried = saved.getTried();
+                resumedSkipped = saved.getSkipped();
+                stats.addSkipped(addCounts(resumedTried, resumedSkipped));
+                if (saved.isFinished()) {
+                    result = Result.UNSAT;
+                    return false;
+                }
+                System.arraycopy(saved.getCounter(), 0, variableValues, 0, variableValues.length);
+            }
+        }
+
+        do {    // Loops through all possible assignments
+            if ((++tried & STOP_CHECK_MASK) == 0) {
+                // Stats may be shared, so the limit sees the assignments of all tasks
+                stats.add(tried - reported, clauses, literals);
+                stats.addSkipped(skipped);
+                skippedTotal = addCounts(skippedTotal, skipped);
+                reported = tried;
+                clauses = 0;
+                literals = 0;
+                skipped = 0;
+                // The current assignment is not tested yet, so it is not counted in a checkpoint
+                if ((stop != null && stop.get()) || limits.isReached(startTime, stats.getAssignments())) {
+                    if (checkpointDir != null) {
+                        saveCheckpoint(false, resumedTried + tried - 1, addCounts(resumedSkipped, skippedTotal));
                     }
-                    if(truthValue)  // If variable is true, break out of loop and check next clause
+                    result = Result.UNKNOWN;
+                    return false;
+                }
+                if (checkpointDir != null && System.nanoTime() - lastCheckpoint >= checkpointInterval) {
+                    saveCheckpoint(false, resumedTried + tried - 1, addCounts(resumedSkipped, skippedTotal));
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+            truthValue = true;
+            for (int i = 0; i < numClauses; i++) {    // Loops through each clause in formula
+                boolean clauseValue = false;
+                clauses++;
+                for (int k = offsets[i]; k < offsets[i + 1]; k++) {  // Loops through all literals in clause
+                    literals++;
+                    int code = literalBits[k];
+                    int bit = code >>> 1;
+                    // Value of the variable xor the negation flag gives the literal value
+                    if ((((variableValues[bit >>> 6] >>> bit) ^ code) & 1) != 0) {
+                        clauseValue = true;     // If literal is true, check next clause
                         break;
+                    }
+                }
+                if (!clauseValue) {     // if clause is false, test next assignment
+                    truthValue = false;
+                    falseClause = i;
+                    break;
                 }
-                if(truthValue == false) {   // if clause is false, break out of loop and test next assignment
+            }
+            if (!truthValue) {
+                int bit = lowestBit[falseClause];
+                if (bit >= freeBits) {  // Nothing left in this range can make the clause true
                     break;
                 }
+                skipped = addCounts(skipped, skipCount(bit));
             }
-            if(truthValue == true) {    // If formula is true, break out of loop
-                break;
+        } while (!truthValue && skipPast(lowestBit[falseClause]));
+        stats.add(tried - reported, clauses, literals);
+        stats.addSkipped(skipped);
+        result = truthValue ? Result.SAT : Result.UNSAT;
+        if (checkpointDir != null && !truthValue) {     // Remember that this range has no model
+            saveCheckpoint(true, resumedTried + tried, addCounts(resumedSkipped, addCounts(skippedTotal, skipped)));
+        }
+
+        if (truthValue) {   // Save the satisfying assignment
+            model = new boolean[numVariables + 1];
+            for (int v = 1; v <= numVariables; v++) {
+                model[v] = getValue(v);
             }
-            continueLoop = setBoolValues(); // call to set new assignment and check to continue looping
         }
         return truthValue;
     }
+
+    /**
+     * @param v - variable number
+     * @return value of the variable in the current assignment
+     */
+    public boolean getValue(int v)
+    {
+        int bit = bitOf[v];
+        return ((variableValues[bit >>> 6] >>> bit) & 1) != 0;
+    }
+
+    /**
+     * Makes solve() add its counters to a shared object instead of its own.
+     *
+     * @param shared - SolverStats object to add to
+     */
+    public void setStats(SolverStats shared)
+    {
+        stats = shared;
+    }
+
+    /**
+     * @return stats - search counters
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return progress - part of the enumerated assignments that were tried or skipped
+     */
+    public double getProgress()
+    {
+        if (result != Result.UNKNOWN) {
+            return 1;
+        }
+        double covered = (double) stats.getAssignments() + stats.getSkipped();
+        return Math.min(1.0, Math.scalb(covered, -freeBits));
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "bruteforce";
+    }
 }
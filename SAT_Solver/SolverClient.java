@@ -0,0 +1,89 @@
+package bruteforce;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * DAA - SolverClient class
+ *
+ * Purpose: This class sends a CNF file to a running SolverDaemon and prints
+ * the answer as it arrives. It is a small stub for scripts and for trying
+ * the daemon out; any program that can open a socket can talk to the daemon
+ * the same way.
+ *
+ * Usage: java bruteforce.SolverClient [-port N] file
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolverClient {
+    public static final int DEFAULT_PORT = 7878;    // Port used when -port is not given
+
+    /**
+     * Sends the file named on the command line and prints the answer.
+     *
+     * @param args - optional -port N followed by the file name
+     */
+    public static void main(String[] args)
+    {
+        int port = DEFAULT_PORT;
+        String fileName = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else {
+                fileName = args[i];
+            }
+        }
+        if (fileName == null) {
+            System.err.println("Usage: java bruteforce.SolverClient [-port N] file");
+            System.exit(2);
+        }
+        try {
+            solve(port, Path.of(fileName), System.out);
+        } catch (IOException e) {
+            System.err.println("Could not send " + fileName + " to port " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sends a CNF file to the daemon and copies the answer to a stream
+     * until the daemon closes the connection.
+     *
+     * @param port - port the daemon listens on
+     * @param file - CNF file to send
+     * @param out - where the answer is copied
+     * @throws IOException if the daemon cannot be reached or the file read
+     */
+    public static void solve(int port, Path file, OutputStream out) throws IOException
+    {
+        try (InputStream source = Files.newInputStream(file);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream request = socket.getOutputStream();
+            try {
+                source.transferTo(request);
+                request.write("\n%\n".getBytes(StandardCharsets.US_ASCII));
+                request.flush();
+                socket.shutdownOutput();
+            } catch (IOException e) {
+                // A busy daemon may stop reading early; its answer is still there to read
+            }
+
+            InputStream answer = socket.getInputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = answer.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+                out.flush();
+            }
+        }
+    }
+}
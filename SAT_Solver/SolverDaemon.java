@@ -0,0 +1,377 @@
+package bruteforce;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DAA - SolverDaemon class
+ *
+ * Purpose: This class keeps one JVM running and solves formulas sent to it
+ * over a TCP socket on the loopback address, so small instances do not pay
+ * for JVM startup and warm-up every time. It runs when -serve PORT is given
+ * and uses the other options (engine, limits, -timeout and so on) for every
+ * request.
+ *
+ * A client connects, sends DIMACS text and then either a line with % or
+ * closes its side of the connection. The daemon answers on the same
+ * connection and then closes it. The answer is written a section at a time
+ * and flushed after each, so the client sees the verdict before the model
+ * is sent:
+ *
+ *   s SATISFIABLE, s UNSATISFIABLE or s UNKNOWN
+ *   v lines with the model, ending in 0, when it is satisfiable
+ *   d name value lines with the metrics that Main keeps in Data
+ *   e message instead of all of this if the request failed or was turned away
+ *
+ * Requests are solved on a fixed pool of -workers threads. At most -queue
+ * more requests wait for a thread; any request past that is answered with
+ * "e busy" straight away instead of piling up. The busy answers are written
+ * on a small pool of their own, so they never hold up a solve or the timer
+ * that ends requests at -timeout; when that pool is full too, the answer is
+ * written and the connection closed at once without the drain below. Java
+ * 17 has no virtual threads, so the pools are of platform threads.
+ *
+ * Before a connection is closed its unread input is read and thrown away,
+ * whether it was answered or turned away, because closing a socket with
+ * unread bytes resets the connection and the client could lose the answer.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolverDaemon {
+    private static final int READ_TIMEOUT = 30000;     // Milliseconds a client may wait between bytes
+    private static final int LITERALS_PER_LINE = 20;   // Literals on each v line
+    private static final int DRAIN_TIMEOUT = 1000;     // Milliseconds a client may keep sending after its answer
+    private static final long DRAIN_LIMIT = 1 << 20;   // Bytes read from a client before giving up
+    private static final int REFUSERS = 2;             // Threads that write the busy answers
+
+    private Config config;                      // Holds the options used for every request
+    private ServerSocket server;                // Listens on the loopback address
+    private ThreadPoolExecutor pool;            // Solves the requests, with a bounded queue
+    private ThreadPoolExecutor refusers;        // Answers the requests turned away, with a bounded queue
+    private ScheduledExecutorService timer;     // Sets the stop flags of requests that time out
+    private AtomicInteger requests;             // Holds # of requests taken, names them
+    private Set<AtomicBoolean> running;         // Stop flags of the requests being solved
+
+    /**
+     * Constructor
+     *
+     * Initializes instance variables.
+     *
+     * @param c - Config object holding the options
+     */
+    public SolverDaemon(Config c)
+    {
+        config = c;
+        requests = new AtomicInteger();
+        running = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Opens the socket and answers requests until the JVM is stopped.
+     */
+    public void run()
+    {
+        try {
+            start();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not listen on port " + config.getServe() + ": " + e.getMessage(), e);
+        }
+        System.out.println("Listening on " + server.getLocalSocketAddress());
+        serve();
+    }
+
+    /**
+     * Opens the socket on the loopback address and starts the worker pool.
+     *
+     * @throws IOException if the port cannot be opened
+     */
+    public void start() throws IOException
+    {
+        server = new ServerSocket(config.getServe(), 50, InetAddress.getLoopbackAddress());
+        AtomicInteger threads = new AtomicInteger();
+        pool = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueue()), r -> {
+                    Thread t = new Thread(r, "solver-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        refusers = new ThreadPoolExecutor(REFUSERS, REFUSERS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueue()), r -> {
+                    Thread t = new Thread(r, "daemon-refuse");
+                    t.setDaemon(true);
+                    return t;
+                });
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "daemon-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Takes connections and hands them to the pool until the socket is
+     * closed.
+     */
+    public void serve()
+    {
+        while (!server.isClosed()) {
+            Socket client;
+            try {
+                client = server.accept();
+            } catch (IOException e) {
+                break;      // Closed by stop()
+            }
+            try {
+                pool.execute(() -> handle(client));
+            } catch (RejectedExecutionException e) {
+                try {
+                    refusers.execute(() -> refuse(client, true));
+                } catch (RejectedExecutionException full) {
+                    refuse(client, false);  // Too many to wait on, answer and close at once
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the socket and stops the pools. The stop flags of the requests
+     * being solved are set, so their engines end at their next check and
+     * answer s UNKNOWN; requests still waiting in the queue are not started.
+     */
+    public void stop()
+    {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        for (AtomicBoolean stop : running) {
+            stop.set(true);
+        }
+        pool.shutdownNow();
+        refusers.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * @return port - port the daemon listens on, useful when it was started on port 0
+     */
+    public int getPort()
+    {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Answers a client that came while every thread and queue slot was taken.
+     * Without the drain the answer fits in the socket buffer, so this does
+     * not block, but the client may lose it if it is still sending.
+     *
+     * @param client - connection to turn away
+     * @param drain - true to read the rest of the request before closing
+     */
+    private static void refuse(Socket client, boolean drain)
+    {
+        try (client) {
+            client.getOutputStream().write("e busy\n".getBytes(StandardCharsets.US_ASCII));
+            if (drain) {
+                drain(client);
+            }
+        } catch (IOException e) {
+            // The client is gone already
+        }
+    }
+
+    /**
+     * Ends the answer and reads the rest of the request, throwing it away,
+     * until the client closes, DRAIN_TIMEOUT passes between bytes or
+     * DRAIN_LIMIT bytes were read. The caller closes the socket after this.
+     *
+     * @param client - connection that was answered
+     * @throws IOException if the client is gone
+     */
+    private static void drain(Socket client) throws IOException
+    {
+        client.shutdownOutput();
+        client.setSoTimeout(DRAIN_TIMEOUT);
+        InputStream in = client.getInputStream();
+        byte[] buffer = new byte[8192];
+        long drained = 0;
+        int n;
+        while (drained < DRAIN_LIMIT && (n = in.read(buffer)) > 0) {
+            drained += n;
+        }
+    }
+
+    /**
+     * Reads one formula from a connection, solves it and writes the answer.
+     *
+     * @param client - connection of the request
+     */
+    private void handle(Socket client)
+    {
+        String name = "request-" + requests.incrementAndGet();
+        try (client) {
+            client.setSoTimeout(READ_TIMEOUT);
+            Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new BufferedOutputStream(client.getOutputStream()), StandardCharsets.US_ASCII));
+            try {
+                solve(name, client.getInputStream(), out);
+            } catch (RuntimeException e) {
+                String message = e.getMessage() == null ? e.toString() : e.getMessage();
+                out.write("e " + message.replace('\n', ' ') + "\n");
+            }
+            out.flush();
+            drain(client);
+        } catch (IOException e) {
+            // The client went away, nothing is left to answer
+        }
+    }
+
+    /**
+     * Parses and solves one formula and writes the verdict, the model and
+     * the metrics, flushing after each.
+     *
+     * @param name - name of the request, used as the file name in the metrics
+     * @param in - stream holding the DIMACS text
+     * @param out - where the answer is written
+     * @throws IOException if the answer cannot be written
+     */
+    private void solve(String name, InputStream in, Writer out) throws IOException
+    {
+        FileInfo file = new FileInfo(name);
+        SolveMonitor monitor = config.createMonitor(name);
+        AtomicBoolean stop = new AtomicBoolean();
+        running.add(stop);
+        ScheduledFuture<?> alarm = null;
+        if (config.getTimeout() > 0) {
+            alarm = timer.schedule(() -> stop.set(true), config.getTimeout(), TimeUnit.SECONDS);
+        }
+        try {
+            long startTime = System.nanoTime();
+            file.setValues(in);
+            long compileStart = System.nanoTime();
+            monitor.setPhase("compiling");
+            SATEngine engine = config.createEngine(file);
+            engine.setStopFlag(stop);
+            monitor.setEngine(engine);
+            long solveStart = System.nanoTime();
+            boolean solved = engine.solve();
+            long endTime = System.nanoTime();
+
+            Result result = engine.getResult();
+            out.write(result == Result.SAT ? "s SATISFIABLE\n"
+                    : result == Result.UNSAT ? "s UNSATISFIABLE\n" : "s UNKNOWN\n");
+            out.flush();
+            if (solved) {
+                writeModel(engine.getModel(), out);
+                out.flush();
+            }
+
+            Data data = new Data(name, (endTime - startTime) / 1000000, solved, engine.getWorkers());
+            data.setPhaseTimes(file.getReadTime(), file.getParseTime() - file.getReadTime(),
+                    solveStart - compileStart, endTime - solveStart);
+            data.setStats(engine.getStats());
+            data.setMemory(monitor.getPeakHeapBytes(), monitor.getOffHeapBytes());
+            data.setResult(result, engine.getProgress());
+            data.setPath(engine.getName());
+            SATEngine inner = engine;
+            if (inner instanceof CachedEngine && ((CachedEngine) inner).getEngine() != null) {
+                inner = ((CachedEngine) inner).getEngine();
+            }
+            if (inner instanceof PreprocessedEngine) {
+                inner = ((PreprocessedEngine) inner).getEngine();
+            }
+            if (inner instanceof PortfolioSolver) {
+                PortfolioSolver race = (PortfolioSolver) inner;
+                data.setPortfolio(race.getWinner(), race.getTimes());
+            }
+            writeData(data, file, out);
+        } finally {
+            running.remove(stop);
+            if (alarm != null) {
+                alarm.cancel(false);
+            }
+            monitor.close();
+        }
+    }
+
+    /**
+     * Writes a model as v lines of a few literals each, ending in 0.
+     *
+     * @param model - values of the variables, index 0 unused
+     * @param out - where the lines are written
+     * @throws IOException if the lines cannot be written
+     */
+    private static void writeModel(boolean[] model, Writer out) throws IOException
+    {
+        StringBuilder line = new StringBuilder("v");
+        for (int i = 1; i < model.length; i++) {
+            line.append(' ').append(model[i] ? i : -i);
+            if (i % LITERALS_PER_LINE == 0 && i + 1 < model.length) {
+                out.write(line.append('\n').toString());
+                line.setLength(0);
+                line.append('v');
+            }
+        }
+        out.write(line.append(" 0\n").toString());
+    }
+
+    /**
+     * Writes the metrics of a request as d lines.
+     *
+     * @param data - Data object of the request
+     * @param file - FileInfo object of the request
+     * @param out - where the lines are written
+     * @throws IOException if the lines cannot be written
+     */
+    private static void writeData(Data data, FileInfo file, Writer out) throws IOException
+    {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("variables", file.getNumVariables());
+        fields.put("clauses", file.getNumClauses());
+        fields.put("time_ms", data.getTimeTaken());
+        fields.put("path", data.getPath());
+        fields.put("workers", data.getWorkers());
+        fields.put("searched", String.format("%.4f", data.getProgress()));
+        fields.put("read_ns", data.getReadTime());
+        fields.put("parse_ns", data.getParseTime());
+        fields.put("compile_ns", data.getCompileTime());
+        fields.put("solve_ns", data.getSolveTime());
+        fields.put("assignments", data.getAssignments());
+        fields.put("clause_evaluations", data.getClauseEvaluations());
+        fields.put("literals_inspected", data.getLiteralsInspected());
+        fields.put("skipped", data.getSkipped());
+        fields.put("assignments_per_second", String.format("%.0f", data.getAssignmentRate()));
+        fields.put("peak_heap_bytes", data.getPeakHeap());
+        fields.put("off_heap_bytes", data.getOffHeap());
+        if (!data.getEngineTimes().isEmpty()) {
+            fields.put("winner", data.getWinner() == null ? "none" : data.getWinner());
+        }
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            out.write("d " + field.getKey() + " " + field.getValue() + "\n");
+        }
+    }
+}
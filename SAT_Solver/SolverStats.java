@@ -0,0 +1,89 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DAA - SolverStats class
+ *
+ * Purpose: This class holds the search counters of an engine: how many
+ * assignments it tried, how many times it evaluated a clause and how many
+ * literals it looked at, and for engines that jump over assignments they know
+ * are false, how many they skipped. Engines count in local variables inside
+ * their loops and add the totals here with add() every few thousand steps and
+ * when they finish, so the counting does not slow down the loops and a
+ * SolveMonitor can read the counts while the search runs. The counters are
+ * LongAdders, which spread concurrent adds over separate cells instead of
+ * locking, so the tasks of a parallel engine can share one object without
+ * waiting on each other. This class also contains accessor methods.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolverStats {
+    private final LongAdder assignments = new LongAdder();          // Holds # of assignments tried
+    private final LongAdder clauseEvaluations = new LongAdder();    // Holds # of times a clause was evaluated
+    private final LongAdder literalsInspected = new LongAdder();    // Holds # of literals looked at
+    private final LongAccumulator skipped =         // Holds # of assignments jumped over without trying them
+            new LongAccumulator((a, b) -> b > Long.MAX_VALUE - a ? Long.MAX_VALUE : a + b, 0);
+
+    /**
+     * Adds counts to the totals. Safe to call from the tasks of a parallel
+     * engine at the same time.
+     *
+     * @param tried - assignments tried
+     * @param clauses - clause evaluations
+     * @param literals - literals inspected
+     */
+    public void add(long tried, long clauses, long literals)
+    {
+        assignments.add(tried);
+        clauseEvaluations.add(clauses);
+        literalsInspected.add(literals);
+    }
+
+    /**
+     * Adds to the skipped assignments. The count stays at Long.MAX_VALUE
+     * instead of overflowing, since a jump over a high counter bit skips
+     * more assignments than a long can hold.
+     *
+     * @param count - assignments skipped
+     */
+    public void addSkipped(long count)
+    {
+        skipped.accumulate(count);
+    }
+
+    /**
+     * @return assignments - holds number of assignments tried
+     */
+    public long getAssignments()
+    {
+        return assignments.sum();
+    }
+
+    /**
+     * @return clauseEvaluations - holds number of times a clause was evaluated
+     */
+    public long getClauseEvaluations()
+    {
+        return clauseEvaluations.sum();
+    }
+
+    /**
+     * @return literalsInspected - holds number of literals looked at
+     */
+    public long getLiteralsInspected()
+    {
+        return literalsInspected.sum();
+    }
+
+    /**
+     * @return skipped - holds number of assignments jumped over without trying them
+     */
+    public long getSkipped()
+    {
+        return skipped.get();
+    }
+}
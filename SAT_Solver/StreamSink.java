@@ -0,0 +1,135 @@
+package bruteforce;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * DAA - StreamSink class
+ *
+ * Purpose: This class is a ModelSink that writes each model as one DIMACS
+ * "v ... 0" line to a stream, stdout or a file. Lines go through a small
+ * buffer that is flushed every 64 models or 100 ms, whichever comes first,
+ * so a reader on the other end of a pipe sees them while the enumeration is
+ * still running. When the reader is slower than the search the write blocks
+ * and the enumeration waits, and when the reader is gone the enumeration
+ * stops.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class StreamSink implements ModelSink {
+    private static final int FLUSH_EVERY = 64;              // Most models written between flushes
+    private static final long FLUSH_NANOS = 100000000L;     // Most time between flushes
+
+    private Writer out;
+    private PrintStream print;      // The stream if it is one, it hides write errors until asked
+    private boolean owned;          // true if the stream is closed by finish()
+    private long written;           // Holds # of models written
+    private long lastFlush;         // System.nanoTime() of the last flush
+
+    /**
+     * Constructor
+     *
+     * Writes to a stream that stays open after finish(), such as System.out.
+     *
+     * @param stream - stream the models are written to
+     */
+    public StreamSink(OutputStream stream)
+    {
+        this(stream, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * Initializes all instance variables passed as parameters.
+     *
+     * @param stream - stream the models are written to
+     * @param close - true if finish() closes the stream
+     */
+    private StreamSink(OutputStream stream, boolean close)
+    {
+        out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.US_ASCII));
+        owned = close;
+        print = stream instanceof PrintStream ? (PrintStream) stream : null;
+        lastFlush = System.nanoTime();
+    }
+
+    /**
+     * Creates a sink that writes to a new file, replacing an old one.
+     *
+     * @param path - file to write
+     * @return sink - StreamSink that closes the file in finish()
+     */
+    public static StreamSink toFile(Path path)
+    {
+        try {
+            return new StreamSink(Files.newOutputStream(path), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + path, e);
+        }
+    }
+
+    /**
+     * Writes one model as a v line.
+     *
+     * @param literals - value of each enumerated variable as a DIMACS literal
+     * @return true to go on, false once nobody reads the stream anymore,
+     *         such as when stdout was piped to head
+     */
+    public boolean accept(int[] literals)
+    {
+        StringBuilder line = new StringBuilder("v");
+        for (int literal : literals) {
+            line.append(' ').append(literal);
+        }
+        line.append(" 0\n");
+        try {
+            out.write(line.toString());
+            long now = System.nanoTime();
+            if (++written % FLUSH_EVERY == 0 || now - lastFlush >= FLUSH_NANOS) {
+                out.flush();
+                lastFlush = now;
+                if (print != null && print.checkError()) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write model", e);
+        }
+        return true;
+    }
+
+    /**
+     * Flushes the last lines and closes the stream if it is a file.
+     */
+    public void finish()
+    {
+        try {
+            if (owned) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write model", e);
+        }
+    }
+
+    /**
+     * @return written - holds number of models written
+     */
+    public long getWritten()
+    {
+        return written;
+    }
+}
@@ -0,0 +1,204 @@
+package bruteforce;
+
+/**
+ * DAA - TwoSatSolver class
+ *
+ * Purpose: This class solves formulas where no clause has more than 2
+ * literals in linear time. Every clause (a or b) is turned into the two
+ * implications (not a -> b) and (not b -> a) of the implication graph, and a
+ * unit clause (a) into (not a -> a). The formula is unsatisfiable exactly
+ * when a variable and its negation are in the same strongly connected
+ * component. Tarjan's algorithm numbers the components in reverse
+ * topological order, so a variable is set true when its positive literal's
+ * component comes before the negative literal's component.
+ *
+ * Tarjan's algorithm is run with an explicit stack so long implication
+ * chains cannot overflow the Java call stack.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class TwoSatSolver implements SATEngine {
+    private int numVariables;
+    private boolean empty;          // true if the formula has an empty clause
+    private int[] edgeStarts;       // Start of each literal's list of implied literals
+    private int[] edges;            // Implied literals, back to back
+    private boolean[] model;
+    private Result result;
+    private SolverStats stats;
+
+    /**
+     * Constructor
+     *
+     * Builds the implication graph. Literal v is node 2v and literal -v is
+     * node 2v + 1, so the negation of a node is node ^ 1.
+     *
+     * @param db - ClauseDatabase holding a formula with at most 2 literals per clause
+     */
+    public TwoSatSolver(ClauseDatabase db)
+    {
+        numVariables = db.getNumVariables();
+        ClauseView clause = db.view();
+        int nodes = 2 * numVariables + 2;
+        edgeStarts = new int[nodes + 1];
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            int length = clause.moveTo(c).size();
+            if (length > 2) {
+                throw new IllegalArgumentException("Clause " + (c + 1) + " has more than 2 literals");
+            }
+            if (length == 0) {
+                empty = true;
+            } else {
+                int a = ClauseDatabase.occurrenceIndex(clause.get(0));
+                int b = ClauseDatabase.occurrenceIndex(clause.get(length - 1));
+                edgeStarts[(a ^ 1) + 1]++;
+                if (length == 2) {
+                    edgeStarts[(b ^ 1) + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i <= nodes; i++) {
+            edgeStarts[i] += edgeStarts[i - 1];
+        }
+        edges = new int[edgeStarts[nodes]];
+        int[] fill = edgeStarts.clone();
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            int length = clause.moveTo(c).size();
+            if (length > 0) {
+                int a = ClauseDatabase.occurrenceIndex(clause.get(0));
+                int b = ClauseDatabase.occurrenceIndex(clause.get(length - 1));
+                edges[fill[a ^ 1]++] = b;   // For a unit clause b is a, giving not a -> a
+                if (length == 2) {
+                    edges[fill[b ^ 1]++] = a;
+                }
+            }
+        }
+        stats = new SolverStats();
+    }
+
+    /**
+     * Finds the strongly connected components and reads the model off
+     * their order.
+     *
+     * @return true if the formula is satisfiable, false if not
+     */
+    public boolean solve()
+    {
+        model = null;
+        if (empty) {
+            result = Result.UNSAT;
+            return false;
+        }
+        int[] component = components();
+        stats.add(1, edges.length, edges.length);
+        boolean[] values = new boolean[numVariables + 1];
+        for (int v = 1; v <= numVariables; v++) {
+            if (component[2 * v] == component[2 * v + 1]) {
+                result = Result.UNSAT;
+                return false;
+            }
+            values[v] = component[2 * v] < component[2 * v + 1];
+        }
+        model = values;
+        result = Result.SAT;
+        return true;
+    }
+
+    /**
+     * Tarjan's algorithm without recursion. Components get numbers in the
+     * order they are finished, which is reverse topological order.
+     *
+     * @return component - component number of each node
+     */
+    private int[] components()
+    {
+        int nodes = 2 * numVariables + 2;
+        int[] index = new int[nodes];       // Visit order + 1, 0 if not visited
+        int[] low = new int[nodes];
+        int[] component = new int[nodes];
+        boolean[] onStack = new boolean[nodes];
+        int[] stack = new int[nodes];       // Nodes of components not finished yet
+        int[] callStack = new int[nodes];   // Nodes whose edges are being walked
+        int[] nextEdge = new int[nodes];    // Next edge to walk from each node
+        int stackSize = 0;
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 2; root < nodes; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = ++counter;
+            nextEdge[root] = edgeStarts[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                if (nextEdge[node] < edgeStarts[node + 1]) {
+                    int next = edges[nextEdge[node]++];
+                    if (index[next] == 0) {     // Walk into an unvisited node
+                        index[next] = low[next] = ++counter;
+                        nextEdge[next] = edgeStarts[next];
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        callStack[depth++] = next;
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+                depth--;    // All edges of node are done
+                if (low[node] == index[node]) {     // node is the root of a component
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component[member] = components;
+                    } while (member != node);
+                    components++;
+                }
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * @return result - outcome of the last solve()
+     */
+    public Result getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return stats - one assignment built and the implication edges walked
+     */
+    public SolverStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * @return model - values of the variables in the satisfying assignment
+     */
+    public boolean[] getModel()
+    {
+        return model;
+    }
+
+    /**
+     * @return name - short name of the engine
+     */
+    public String getName()
+    {
+        return "2sat";
+    }
+}
@@ -0,0 +1,41 @@
+package bruteforce;
+
+import java.nio.file.Path;
+
+/**
+ * DAA - BenchmarkInstances class
+ *
+ * Purpose: This class finds the bundled CNF files used by the benchmarks.
+ * The files are named uf(variables)-01.cnf and are kept in
+ * benchmarks/instances. A different folder can be given with the
+ * bench.instances system property.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class BenchmarkInstances {
+
+    /**
+     * @param variables - number of variables of the instance
+     * @return path - file name of the bundled instance with that many variables
+     */
+    public static String path(String variables)
+    {
+        String folder = System.getProperty("bench.instances", "benchmarks/instances");
+        return Path.of(folder, "uf" + variables + "-01.cnf").toString();
+    }
+
+    /**
+     * Reads and compiles a bundled instance.
+     *
+     * @param variables - number of variables of the instance
+     * @return database - the compiled formula
+     */
+    public static ClauseDatabase load(String variables)
+    {
+        FileInfo file = new FileInfo(path(variables));
+        file.setValues();
+        return file.evaluateClauses();
+    }
+}
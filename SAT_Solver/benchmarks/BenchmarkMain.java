@@ -0,0 +1,30 @@
+package bruteforce;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * DAA - BenchmarkMain class
+ *
+ * Purpose: This class runs all the benchmarks with the GC profiler turned on,
+ * so the results show the allocation rate next to ops/s. A regular
+ * expression passed as the first argument runs only the matching benchmarks.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "bruteforce\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
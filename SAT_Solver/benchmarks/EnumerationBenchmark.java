@@ -0,0 +1,57 @@
+package bruteforce;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DAA - EnumerationBenchmark class
+ *
+ * Purpose: This class measures Solver.setBoolValues() by itself, which is
+ * the cost of stepping to the next assignment without testing any clauses.
+ * The counter simply wraps around when it runs out of assignments.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumerationBenchmark {
+    @Param({"20", "50", "100"})
+    public String variables;        // Picks the bundled instance
+
+    private Solver solver;
+
+    /**
+     * Makes the solver once per trial.
+     */
+    @Setup
+    public void setup()
+    {
+        solver = new Solver(BenchmarkInstances.load(variables));
+    }
+
+    /**
+     * @return continueLoop - returned so the work is not removed
+     */
+    @Benchmark
+    public boolean setBoolValues()
+    {
+        return solver.setBoolValues();
+    }
+}
@@ -0,0 +1,70 @@
+package bruteforce;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DAA - ParseBenchmark class
+ *
+ * Purpose: This class measures how fast a CNF file is read. setValues()
+ * measures only the DIMACS parse, full() measures setValues() followed by
+ * evaluateClauses(), which is everything done before a solver starts.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"20", "50", "100"})
+    public String variables;        // Picks the bundled instance
+
+    private String fileName;
+
+    /**
+     * Finds the instance file once per trial.
+     */
+    @Setup
+    public void setup()
+    {
+        fileName = BenchmarkInstances.path(variables);
+    }
+
+    /**
+     * @return file - the parsed file, returned so the work is not removed
+     */
+    @Benchmark
+    public FileInfo setValues()
+    {
+        FileInfo file = new FileInfo(fileName);
+        file.setValues();
+        return file;
+    }
+
+    /**
+     * @return database - the compiled formula, returned so the work is not removed
+     */
+    @Benchmark
+    public ClauseDatabase full()
+    {
+        FileInfo file = new FileInfo(fileName);
+        file.setValues();
+        return file.evaluateClauses();
+    }
+}
@@ -0,0 +1,85 @@
+package bruteforce;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DAA - SolveBenchmark class
+ *
+ * Purpose: This class measures solve() of every engine on the same bundled
+ * instances so the engines can be compared with each other. The formula is
+ * parsed and the engine is made once per trial, since every solve() starts
+ * its search over. CDCLSolver keeps the clauses it learned, so its number is
+ * for solving the same formula again. Only the brute force sized instances
+ * are used so every engine finishes quickly.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"12", "16", "20"})
+    public String variables;        // Picks the bundled instance
+
+    @Param({"bruteforce", "parallel", "gray", "bitsliced", "cdcl", "walksat", "probsat"})
+    public String engine;           // Picks the engine to measure
+
+    private ClauseDatabase database;
+    private SATEngine solver;
+
+    /**
+     * Parses the instance and makes the engine once per trial.
+     */
+    @Setup(Level.Trial)
+    public void makeEngine()
+    {
+        database = BenchmarkInstances.load(variables);
+        switch (engine) {
+            case "parallel":
+                solver = new ParallelSolver(database, Runtime.getRuntime().availableProcessors());
+                break;
+            case "gray":
+                solver = new GrayCodeSolver(database);
+                break;
+            case "bitsliced":
+                solver = new BitSlicedSolver(database);
+                break;
+            case "cdcl":
+                solver = new CDCLSolver(database);
+                break;
+            case "walksat":
+            case "probsat":
+                solver = new LocalSearchSolver(database, engine.equals("probsat"), 0);
+                break;
+            default:
+                solver = new Solver(database);
+        }
+    }
+
+    /**
+     * @return truthValue - returned so the work is not removed
+     */
+    @Benchmark
+    public boolean solve()
+    {
+        return solver.solve();
+    }
+}
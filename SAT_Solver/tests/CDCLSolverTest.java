@@ -0,0 +1,47 @@
+package bruteforce;
+
+/**
+ * DAA - CDCLSolverTest class
+ *
+ * Purpose: This class checks that the assignment limit of CDCLSolver holds
+ * for each solve() and not for all of them together, so a long run of
+ * incremental solve(assumptions) calls does not end in UNKNOWN once the
+ * propagations of the earlier calls add up to the limit. It prints each
+ * failure and exits with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class CDCLSolverTest {
+    private static final int CALLS = 200;   // Incremental calls made under the limit
+    private static int failures;            // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        // A chain 1 -> 2 -> ... -> 40, so assuming 1 propagates 40 literals
+        int n = 40;
+        int[] literals = new int[2 * (n - 1)];
+        int[] offsets = new int[n];
+        for (int v = 1; v < n; v++) {
+            literals[2 * (v - 1)] = -v;
+            literals[2 * (v - 1) + 1] = v + 1;
+            offsets[v] = 2 * v;
+        }
+        ClauseDatabase chain = new ClauseDatabase(n, literals, offsets);
+        CDCLSolver solver = new CDCLSolver(chain);
+        solver.setLimits(new SolveLimits(0, 10 * n, 0));
+        for (int call = 1; call <= CALLS; call++) {
+            boolean solved = solver.solve(call % 2 == 0 ? 1 : -n);
+            if (!solved || solver.getResult() != Result.SAT || !chain.isSatisfiedBy(solver.getModel())) {
+                failures++;
+                System.out.println("call " + call + ": expected SAT, got " + solver.getResult()
+                        + " after " + solver.getPropagations() + " propagations in all");
+                break;
+            }
+        }
+
+        System.out.println(failures == 0 ? "CDCLSolverTest passed" : "CDCLSolverTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
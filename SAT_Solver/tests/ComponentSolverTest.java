@@ -0,0 +1,123 @@
+package bruteforce;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * DAA - ComponentSolverTest class
+ *
+ * Purpose: This class checks that ComponentSolver gives the right answer
+ * when the engine of each part is one that stops its own search when it is
+ * done, ParallelSolver and PortfolioSolver. A formula made of two
+ * satisfiable parts must come out satisfiable, and random formulas must get
+ * the same answer as a plain Solver on the whole formula, while a part
+ * whose engine gives a model that does not satisfy it must not make the
+ * whole formula satisfiable. It prints each failure and exits with status 1
+ * if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ComponentSolverTest {
+    private static final int ROUNDS = 600;      // Random formulas checked for each engine
+    private static int failures;                // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        // (1 v 2 v 3)(-1 v 2 v 4) and (5 v 6 v 7)(-5 v 6 v 8) share no variable
+        ClauseDatabase twoParts = new ClauseDatabase(8,
+                new int[] {1, 2, 3, -1, 2, 4, 5, 6, 7, -5, 6, 8}, new int[] {0, 3, 6, 9, 12});
+        for (int round = 0; round < 20; round++) {
+            check("two parts, threads", twoParts, true, new ComponentSolver(twoParts, d -> new ParallelSolver(d, 2), 2));
+            check("two parts, portfolio", twoParts, true, new ComponentSolver(twoParts, ComponentSolverTest::portfolio, 2));
+        }
+        ComponentSolver again = new ComponentSolver(twoParts, d -> new ParallelSolver(d, 2), 2);
+        check("two parts, first solve", twoParts, true, again);
+        check("two parts, second solve", twoParts, true, again);
+        ComponentSolver wrong = new ComponentSolver(twoParts, PortfolioSolverTest.WrongModel::new, 2);
+        expect("a part model that does not satisfy the part is not merged",
+                !wrong.solve() && wrong.getResult() == Result.UNKNOWN && wrong.getModel() == null);
+
+        Random random = new Random(15);
+        for (int round = 0; round < ROUNDS; round++) {
+            ClauseDatabase db = randomFormula(random);
+            boolean expected = new Solver(db).solve();
+            check("random " + round + ", threads", db, expected, new ComponentSolver(db, d -> new ParallelSolver(d, 2), 2));
+            check("random " + round + ", portfolio", db, expected, new ComponentSolver(db, ComponentSolverTest::portfolio, 2));
+        }
+
+        System.out.println(failures == 0 ? "ComponentSolverTest passed" : "ComponentSolverTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Solves a formula and compares the answer and the model with the
+     * expected answer.
+     *
+     * @param name - name of the check, printed if it fails
+     * @param db - ClauseDatabase holding the formula
+     * @param expected - true if the formula is satisfiable
+     * @param engine - engine to check
+     */
+    private static void check(String name, ClauseDatabase db, boolean expected, SATEngine engine)
+    {
+        boolean solved = engine.solve();
+        Result wanted = expected ? Result.SAT : Result.UNSAT;
+        if (solved != expected || engine.getResult() != wanted) {
+            failures++;
+            System.out.println(name + ": expected " + wanted + ", got " + engine.getResult());
+        } else if (solved && !db.isSatisfiedBy(engine.getModel())) {
+            failures++;
+            System.out.println(name + ": model does not satisfy the formula");
+        }
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+
+    /**
+     * @param db - ClauseDatabase holding one part
+     * @return engine - race of the brute force and CDCL solvers on the part
+     */
+    private static SATEngine portfolio(ClauseDatabase db)
+    {
+        return new PortfolioSolver(db, List.of(new Solver(db), new CDCLSolver(db)));
+    }
+
+    /**
+     * Makes a formula of up to 12 variables that often falls apart into
+     * several parts.
+     *
+     * @param random - source of the formula
+     * @return database - the formula
+     */
+    private static ClauseDatabase randomFormula(Random random)
+    {
+        int variables = 1 + random.nextInt(12);
+        int clauses = random.nextInt(3 * variables + 1);
+        int[] literals = new int[3 * clauses];
+        int[] offsets = new int[clauses + 1];
+        int next = 0;
+        for (int c = 0; c < clauses; c++) {
+            int length = 1 + random.nextInt(3);
+            for (int k = 0; k < length; k++) {
+                int v = 1 + random.nextInt(variables);
+                literals[next++] = random.nextBoolean() ? v : -v;
+            }
+            offsets[c + 1] = next;
+        }
+        return new ClauseDatabase(variables, Arrays.copyOf(literals, next), offsets);
+    }
+}
@@ -0,0 +1,89 @@
+package bruteforce;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * DAA - DimacsParserTest class
+ *
+ * Purpose: This class checks how DimacsParser reads minus signs. A minus
+ * sign right before a digit makes a negative literal, also when the two are
+ * in different read chunks, and one followed by anything else, or by the
+ * end of the input, must be a parse error instead of negating the next
+ * number. It prints each failure and exits with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class DimacsParserTest {
+    private static int failures;    // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        expect("\"1 -2 0\" reads -2", literals("p cnf 2 1\n1 -2 0\n").equals("[1, -2]"));
+        expect("\"0-3\" ends a clause and reads -3", literals("p cnf 3 2\n1 0-3 0\n").equals("[1] [-3]"));
+        // The 64 KiB read chunk ends between the minus sign and its digit
+        String padding = "c" + "x".repeat((1 << 16) - 5) + "\n";
+        expect("minus sign at the end of a chunk", literals(padding + "1 -2 0\n").equals("[1, -2]"));
+
+        rejected("minus sign before a line break", "p cnf 2 1\n1 -\n2 0\n");
+        rejected("minus sign before a space", "p cnf 3 1\n1 - 3 0\n");
+        rejected("two minus signs", "p cnf 3 1\n--3 0\n");
+        rejected("minus sign at the end of the input", "p cnf 1 1\n1 -");
+
+        System.out.println(failures == 0 ? "DimacsParserTest passed" : "DimacsParserTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Parses DIMACS text and lists its clauses.
+     *
+     * @param text - DIMACS text
+     * @return clauses - each clause as a list, or the error if it did not parse
+     */
+    private static String literals(String text)
+    {
+        DimacsParser parser = new DimacsParser();
+        try {
+            parser.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+        } catch (IOException e) {
+            return "error " + e.getMessage();
+        }
+        ClauseDatabase db = parser.toDatabase();
+        ClauseView clause = db.view();
+        StringBuilder clauses = new StringBuilder();
+        for (int c = 0; c < db.getNumClauses(); c++) {
+            clause.moveTo(c);
+            clauses.append(c == 0 ? "[" : " [");
+            for (int k = 0; k < clause.size(); k++) {
+                clauses.append(k == 0 ? "" : ", ").append(clause.get(k));
+            }
+            clauses.append("]");
+        }
+        return clauses.toString();
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param text - DIMACS text that must not parse
+     */
+    private static void rejected(String name, String text)
+    {
+        String answer = literals(text);
+        expect(name + " (got " + answer + ")", answer.startsWith("error '-' not followed by a digit"));
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+}
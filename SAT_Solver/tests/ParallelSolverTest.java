@@ -0,0 +1,67 @@
+package bruteforce;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - ParallelSolverTest class
+ *
+ * Purpose: This class checks how ParallelSolver uses a stop flag given with
+ * setStopFlag(). Finding a model must not set it, a second solve() must
+ * search again instead of stopping at once, and setting it must stop the
+ * search with an UNKNOWN result. It prints each failure and exits with
+ * status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ParallelSolverTest {
+    private static int failures;    // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        // (1 v 2)(-1 v 3)(-2 v -3)(4 v 5) over 20 variables
+        ClauseDatabase db = new ClauseDatabase(20, new int[] {1, 2, -1, 3, -2, -3, 4, 5}, new int[] {0, 2, 4, 6, 8});
+        AtomicBoolean flag = new AtomicBoolean();
+        ParallelSolver solver = new ParallelSolver(db, 3);
+        solver.setStopFlag(flag);
+        for (int run = 1; run <= 3; run++) {
+            boolean solved = solver.solve();
+            expect("run " + run + " is satisfiable", solved && solver.getResult() == Result.SAT
+                    && db.isSatisfiedBy(solver.getModel()));
+            expect("run " + run + " leaves the outside flag alone", !flag.get());
+        }
+
+        // Every clause of x1..x22 is needed, so the search has to go through all of them
+        int n = 22;
+        int[] literals = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            literals[v - 1] = v;
+        }
+        literals[n] = -1;
+        ClauseDatabase hard = new ClauseDatabase(n, literals, new int[] {0, n, n + 1});
+        ParallelSolver stopped = new ParallelSolver(hard, 2);
+        expect("not solved yet is UNKNOWN", stopped.getResult() == Result.UNKNOWN);
+        AtomicBoolean outside = new AtomicBoolean(true);
+        stopped.setStopFlag(outside);
+        expect("a set outside flag stops the search", !stopped.solve() && stopped.getResult() == Result.UNKNOWN);
+        outside.set(false);
+        expect("the search runs again once the flag is cleared", stopped.solve() && stopped.getResult() == Result.SAT
+                && hard.isSatisfiedBy(stopped.getModel()));
+
+        System.out.println(failures == 0 ? "ParallelSolverTest passed" : "ParallelSolverTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package bruteforce;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - PortfolioSolverTest class
+ *
+ * Purpose: This class checks how PortfolioSolver uses a stop flag given
+ * with setStopFlag(). A winner must not set it, a second solve() must race
+ * again instead of stopping at once, and setting it must stop the race with
+ * an UNKNOWN result. An engine that answers SAT with a model that does not
+ * satisfy the formula must not win. It prints each failure and exits with
+ * status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class PortfolioSolverTest {
+    private static int failures;    // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        // (1 v 2)(-1 v 3)(-2 v -3)(4 v 5) over 20 variables
+        ClauseDatabase sat = new ClauseDatabase(20, new int[] {1, 2, -1, 3, -2, -3, 4, 5}, new int[] {0, 2, 4, 6, 8});
+        // (1)(-1) over 20 variables
+        ClauseDatabase unsat = new ClauseDatabase(20, new int[] {1, -1}, new int[] {0, 1, 2});
+        for (ClauseDatabase db : List.of(sat, unsat)) {
+            Result expected = db == sat ? Result.SAT : Result.UNSAT;
+            AtomicBoolean flag = new AtomicBoolean();
+            PortfolioSolver race = new PortfolioSolver(db, List.of(new Solver(db), new CDCLSolver(db)));
+            race.setStopFlag(flag);
+            for (int run = 1; run <= 3; run++) {
+                boolean solved = race.solve();
+                expect(expected + " run " + run + " gives " + expected, race.getResult() == expected
+                        && solved == (expected == Result.SAT) && (!solved || db.isSatisfiedBy(race.getModel())));
+                expect(expected + " run " + run + " leaves the outside flag alone", !flag.get());
+            }
+        }
+
+        // (30)(-30) over 30 variables takes the brute force search 2^30 assignments
+        ClauseDatabase slow = new ClauseDatabase(30, new int[] {30, -30}, new int[] {0, 1, 2});
+        AtomicBoolean outside = new AtomicBoolean(true);
+        PortfolioSolver stopped = new PortfolioSolver(slow, List.of(new Solver(slow), new Solver(slow)));
+        stopped.setStopFlag(outside);
+        expect("a set outside flag stops the race", !stopped.solve() && stopped.getResult() == Result.UNKNOWN);
+        outside.set(false);
+        PortfolioSolver restarted = new PortfolioSolver(sat, List.of(new Solver(sat), new CDCLSolver(sat)));
+        restarted.setStopFlag(outside);
+        expect("the race runs once the flag is cleared", restarted.solve() && restarted.getResult() == Result.SAT);
+
+        // A model that does not satisfy the formula never wins
+        PortfolioSolver checked = new PortfolioSolver(sat, List.of(new WrongModel(sat), new Solver(sat)));
+        expect("a wrong model loses to a right one", checked.solve() && sat.isSatisfiedBy(checked.getModel())
+                && "bruteforce".equals(checked.getWinner()));
+        PortfolioSolver alone = new PortfolioSolver(sat, List.of(new WrongModel(sat)));
+        expect("a wrong model alone gives UNKNOWN", !alone.solve() && alone.getResult() == Result.UNKNOWN
+                && alone.getModel() == null);
+
+        System.out.println(failures == 0 ? "PortfolioSolverTest passed" : "PortfolioSolverTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+
+    /**
+     * Engine that answers SAT at once with all variables false, whether or
+     * not that satisfies the formula.
+     */
+    static class WrongModel implements SATEngine {
+        private boolean[] model;    // All false assignment
+
+        /**
+         * @param db - ClauseDatabase holding the formula
+         */
+        WrongModel(ClauseDatabase db)
+        {
+            model = new boolean[db.getNumVariables() + 1];
+        }
+
+        public boolean solve()
+        {
+            return true;
+        }
+
+        public boolean[] getModel()
+        {
+            return model;
+        }
+
+        public String getName()
+        {
+            return "wrong";
+        }
+
+        public Result getResult()
+        {
+            return Result.SAT;
+        }
+    }
+}
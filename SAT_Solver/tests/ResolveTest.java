@@ -0,0 +1,120 @@
+package bruteforce;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DAA - ResolveTest class
+ *
+ * Purpose: This class checks that an engine can be asked to solve() the
+ * same formula again. Random formulas are solved by Solver, GrayCodeSolver,
+ * BitSlicedSolver and CDCLSolver once with the stop flag set and then twice
+ * more, and every answer after the stopped one must match trying every
+ * assignment. Solver and BitSlicedSolver must find the same first model each
+ * time, and the brute force engines must try assignments again instead of
+ * giving back what the last search ended on. It prints each failure and
+ * exits with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class ResolveTest {
+    private static final int ROUNDS = 2000;     // Random formulas checked
+    private static int failures;                // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(29);
+        for (int round = 0; round < ROUNDS; round++) {
+            ClauseDatabase db = randomFormula(random);
+            boolean[] first = firstModel(db);
+            List<SATEngine> engines = List.of(new Solver(db), new GrayCodeSolver(db),
+                    new BitSlicedSolver(db), new CDCLSolver(db));
+            for (SATEngine engine : engines) {
+                String name = round + " " + engine.getName();
+                AtomicBoolean stop = new AtomicBoolean(true);
+                engine.setStopFlag(stop);
+                engine.solve();
+                stop.set(false);
+                for (int run = 1; run <= 2; run++) {
+                    long before = engine.getStats().getAssignments();
+                    boolean solved = engine.solve();
+                    boolean[] model = engine.getModel();
+                    expect(name + " run " + run + " answer", solved == (first != null)
+                            && engine.getResult() == (solved ? Result.SAT : Result.UNSAT));
+                    expect(name + " run " + run + " model", !solved || db.isSatisfiedBy(model));
+                    if (engine instanceof Solver || engine instanceof BitSlicedSolver) {
+                        expect(name + " run " + run + " first model", !solved || Arrays.equals(model, first));
+                    }
+                    if (!(engine instanceof CDCLSolver)) {
+                        expect(name + " run " + run + " searches again", engine.getStats().getAssignments() > before);
+                    }
+                }
+            }
+        }
+
+        System.out.println(failures == 0 ? "ResolveTest passed" : "ResolveTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Tries every assignment in counter order, variable 1 on the most
+     * significant bit and all false first.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return model - first satisfying assignment, null if there is none
+     */
+    private static boolean[] firstModel(ClauseDatabase db)
+    {
+        int n = db.getNumVariables();
+        boolean[] model = new boolean[n + 1];
+        for (long counter = 0; counter < 1L << n; counter++) {
+            for (int v = 1; v <= n; v++) {
+                model[v] = (counter >>> (n - v) & 1) != 0;
+            }
+            if (db.isSatisfiedBy(model)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+
+    /**
+     * Makes a formula of up to 16 variables with clauses of 1 to 4 literals.
+     *
+     * @param random - source of the formula
+     * @return database - the formula
+     */
+    private static ClauseDatabase randomFormula(Random random)
+    {
+        int variables = 1 + random.nextInt(16);
+        int clauses = random.nextInt(4 * variables + 1);
+        int[] literals = new int[4 * clauses];
+        int[] offsets = new int[clauses + 1];
+        int next = 0;
+        for (int c = 0; c < clauses; c++) {
+            int length = 1 + random.nextInt(4);
+            for (int k = 0; k < length; k++) {
+                int v = 1 + random.nextInt(variables);
+                literals[next++] = random.nextBoolean() ? v : -v;
+            }
+            offsets[c + 1] = next;
+        }
+        return new ClauseDatabase(variables, Arrays.copyOf(literals, next), offsets);
+    }
+}
@@ -0,0 +1,117 @@
+package bruteforce;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * DAA - SkipPastTest class
+ *
+ * Purpose: This class checks that the jumps of Solver.skipPast() keep the
+ * search exhaustive. Random formulas are solved by trying every assignment
+ * in counter order, and Solver must agree on the answer, with and without
+ * reordering, and in the usual order must find the same first model as the
+ * exhaustive search and as BitSlicedSolver. When a formula is unsatisfiable
+ * the assignments tried and skipped must add up to all 2^n of them. It
+ * prints each failure and exits with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SkipPastTest {
+    private static final int ROUNDS = 3000;     // Random formulas checked
+    private static int failures;                // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(17);
+        for (int round = 0; round < ROUNDS; round++) {
+            ClauseDatabase db = randomFormula(random);
+            boolean[] first = firstModel(db);
+
+            Solver plain = new Solver(db);
+            boolean solved = plain.solve();
+            expect(round + " plain answer", solved == (first != null));
+            expect(round + " plain first model", !solved || Arrays.equals(plain.getModel(), first));
+            if (!solved) {
+                SolverStats stats = plain.getStats();
+                expect(round + " plain covers every assignment",
+                        stats.getAssignments() + stats.getSkipped() == 1L << db.getNumVariables());
+            }
+
+            BitSlicedSolver sliced = new BitSlicedSolver(db);
+            expect(round + " bit sliced first model", sliced.solve() == solved
+                    && (!solved || Arrays.equals(sliced.getModel(), first)));
+
+            Solver reordered = new Solver(db, true);
+            boolean found = reordered.solve();
+            expect(round + " reordered answer", found == solved && (!found || db.isSatisfiedBy(reordered.getModel())));
+            if (!found) {
+                SolverStats stats = reordered.getStats();
+                expect(round + " reordered covers every assignment",
+                        stats.getAssignments() + stats.getSkipped() == 1L << db.getNumVariables());
+            }
+        }
+
+        System.out.println(failures == 0 ? "SkipPastTest passed" : "SkipPastTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Tries every assignment in counter order, variable 1 on the most
+     * significant bit and all false first.
+     *
+     * @param db - ClauseDatabase holding the formula
+     * @return model - first satisfying assignment, null if there is none
+     */
+    private static boolean[] firstModel(ClauseDatabase db)
+    {
+        int n = db.getNumVariables();
+        boolean[] model = new boolean[n + 1];
+        for (long counter = 0; counter < 1L << n; counter++) {
+            for (int v = 1; v <= n; v++) {
+                model[v] = (counter >>> (n - v) & 1) != 0;
+            }
+            if (db.isSatisfiedBy(model)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+
+    /**
+     * Makes a formula of up to 14 variables with clauses of 1 to 4 literals.
+     *
+     * @param random - source of the formula
+     * @return database - the formula
+     */
+    private static ClauseDatabase randomFormula(Random random)
+    {
+        int variables = 1 + random.nextInt(14);
+        int clauses = random.nextInt(4 * variables + 1);
+        int[] literals = new int[4 * clauses];
+        int[] offsets = new int[clauses + 1];
+        int next = 0;
+        for (int c = 0; c < clauses; c++) {
+            int length = 1 + random.nextInt(4);
+            for (int k = 0; k < length; k++) {
+                int v = 1 + random.nextInt(variables);
+                literals[next++] = random.nextBoolean() ? v : -v;
+            }
+            offsets[c + 1] = next;
+        }
+        return new ClauseDatabase(variables, Arrays.copyOf(literals, next), offsets);
+    }
+}
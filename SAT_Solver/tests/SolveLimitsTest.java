@@ -0,0 +1,65 @@
+package bruteforce;
+
+/**
+ * DAA - SolveLimitsTest class
+ *
+ * Purpose: This class checks that the assignment limit of an engine holds
+ * for each solve() and not for all of them together, so solving the same
+ * formula again and again does not end in UNKNOWN once the assignments of
+ * the earlier calls add up to the limit. It prints each failure and exits
+ * with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolveLimitsTest {
+    private static final int CALLS = 100;   // Calls made under the limit
+    private static int failures;            // Holds # of failed checks
+
+    public static void main(String[] args)
+    {
+        // (1)(-1 v 2)(-2 v 3)...(-199 v 200), which takes local search thousands of flips
+        int n = 200;
+        int[] literals = new int[2 * n - 1];
+        int[] offsets = new int[n + 1];
+        literals[0] = 1;
+        offsets[1] = 1;
+        for (int v = 1; v < n; v++) {
+            literals[2 * v - 1] = -v;
+            literals[2 * v] = v + 1;
+            offsets[v + 1] = 2 * v + 1;
+        }
+        ClauseDatabase chain = new ClauseDatabase(n, literals, offsets);
+        check(new LocalSearchSolver(chain, false, 0), chain, new SolveLimits(0, 2_000_000, 0));
+
+        // (1) over 16 variables, variable 1 is first flipped after 2^15 Gray code steps
+        ClauseDatabase late = new ClauseDatabase(16, new int[] {1}, new int[] {0, 1});
+        check(new GrayCodeSolver(late), late, new SolveLimits(0, 1 << 17, 0));
+
+        System.out.println(failures == 0 ? "SolveLimitsTest passed" : "SolveLimitsTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Solves a satisfiable formula many times under one limit that every
+     * call stays well under.
+     *
+     * @param engine - engine to check
+     * @param db - ClauseDatabase holding the formula
+     * @param limits - limit given to the engine
+     */
+    private static void check(SATEngine engine, ClauseDatabase db, SolveLimits limits)
+    {
+        engine.setLimits(limits);
+        for (int call = 1; call <= CALLS; call++) {
+            boolean solved = engine.solve();
+            if (!solved || engine.getResult() != Result.SAT || !db.isSatisfiedBy(engine.getModel())) {
+                failures++;
+                System.out.println(engine.getName() + " call " + call + ": expected SAT, got " + engine.getResult()
+                        + " after " + engine.getStats().getAssignments() + " assignments in all");
+                return;
+            }
+        }
+    }
+}
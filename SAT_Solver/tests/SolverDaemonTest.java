@@ -0,0 +1,151 @@
+package bruteforce;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAA - SolverDaemonTest class
+ *
+ * Purpose: This class checks how SolverDaemon ends its connections. A
+ * request followed by bytes the daemon does not read must still get its
+ * whole answer, turned away clients that keep their side open must not
+ * hold up each other or the -timeout of the requests being solved, and
+ * stop() must end a solve that is running. It prints each failure and exits
+ * with status 1 if there was any.
+ *
+ * @author Anwara Era
+ * @version 10-18-26
+ */
+
+public class SolverDaemonTest {
+    private static final String SMALL = "p cnf 3 2\n1 2 0\n-1 3 0\n%\n";
+    private static final String SLOW = "p cnf 31 2\n31 0\n-31 0\n%\n";   // 2^31 assignments for brute force
+    private static int failures;    // Holds # of failed checks
+
+    public static void main(String[] args) throws Exception
+    {
+        // Bytes after the % line are never read by the parser
+        SolverDaemon daemon = start("-workers", "1", "-queue", "1", "-timeout", "1", "-no-fast-path");
+        String answer = request(daemon.getPort(), SMALL + "c".repeat(768 * 1024) + "\n");
+        expect("answer with unread input after it", answer.startsWith("s SATISFIABLE") && answer.contains("d path"));
+
+        // One request solving, one waiting and several turned away clients that never close
+        long start = System.nanoTime();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> request(daemon.getPort(), SLOW));
+        Thread.sleep(200);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> request(daemon.getPort(), SLOW));
+        Thread.sleep(200);
+        ArrayList<Socket> silent = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            silent.add(new Socket(InetAddress.getLoopbackAddress(), daemon.getPort()));
+        }
+        long turnedAway = System.nanoTime();
+        for (Socket socket : silent) {
+            InputStream in = socket.getInputStream();
+            String busy = new String(in.readNBytes(7), StandardCharsets.US_ASCII);
+            expect("turned away client is told so", busy.equals("e busy\n"));
+        }
+        double waited = (System.nanoTime() - turnedAway) / 1e9;
+        expect("turned away clients do not wait on each other (" + String.format("%.1f", waited) + " s)", waited < 2);
+        String timedOut = first.get(30, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        expect("timeout while clients are turned away (" + String.format("%.1f", seconds) + " s)",
+                timedOut.startsWith("s UNKNOWN") && seconds < 3);
+        expect("queued request times out too", second.get(30, TimeUnit.SECONDS).startsWith("s UNKNOWN"));
+        for (Socket socket : silent) {
+            socket.close();
+        }
+        daemon.stop();
+
+        // stop() ends a solve that has no time limit
+        SolverDaemon endless = start("-workers", "1", "-no-fast-path");
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> request(endless.getPort(), SLOW));
+        Thread.sleep(500);
+        long stopTime = System.nanoTime();
+        endless.stop();
+        String stopped = running.get(30, TimeUnit.SECONDS);
+        seconds = (System.nanoTime() - stopTime) / 1e9;
+        expect("stop() ends the solve (" + String.format("%.1f", seconds) + " s)",
+                stopped.startsWith("s UNKNOWN") && seconds < 3);
+
+        System.out.println(failures == 0 ? "SolverDaemonTest passed" : "SolverDaemonTest failed " + failures + " checks");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Starts a daemon on a free port with the given options.
+     *
+     * @param options - command line options other than -serve
+     * @return daemon - SolverDaemon that is taking connections
+     * @throws IOException if no port can be opened
+     */
+    private static SolverDaemon start(String... options) throws IOException
+    {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+        String[] args = new String[options.length + 2];
+        args[0] = "-serve";
+        args[1] = String.valueOf(port);
+        System.arraycopy(options, 0, args, 2, options.length);
+        SolverDaemon daemon = new SolverDaemon(Config.parse(args));
+        daemon.start();
+        Thread serve = new Thread(daemon::serve, "serve");
+        serve.setDaemon(true);
+        serve.start();
+        return daemon;
+    }
+
+    /**
+     * Sends a request on another thread, without closing the sending side,
+     * and reads the answer at the same time.
+     *
+     * @param port - port of the daemon
+     * @param text - request text
+     * @return answer - everything the daemon sent, or the error if the connection failed
+     */
+    private static String request(int port, String text)
+    {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            Thread sender = new Thread(() -> {
+                try {
+                    out.write(text.getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                } catch (IOException e) {
+                    // The daemon stopped reading, its answer is still there to read
+                }
+            }, "send");
+            sender.setDaemon(true);
+            sender.start();
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream answer = new ByteArrayOutputStream();
+            in.transferTo(answer);
+            return answer.toString(StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            return "error " + e.getMessage();
+        }
+    }
+
+    /**
+     * @param name - name of the check, printed if it fails
+     * @param passed - true if the check passed
+     */
+    private static void expect(String name, boolean passed)
+    {
+        if (!passed) {
+            failures++;
+            System.out.println(name + ": failed");
+        }
+    }
+}